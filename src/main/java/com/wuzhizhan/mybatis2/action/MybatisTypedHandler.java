@@ -29,7 +29,7 @@ public class MybatisTypedHandler extends TypedHandlerDelegate {
         PsiFile topLevelFile = InjectedLanguageManager.getInstance(project).getTopLevelFile(file);
         boolean parameterCase = c == '{' &&
                 index >= 0 &&
-                editor.getDocument().getText().charAt(index) == '#' &&
+                editor.getDocument().getCharsSequence().charAt(index) == '#' &&
 //                file instanceof SqlFile &&
                 DomUtils.isMybatisFile(topLevelFile);
         if (parameterCase) {
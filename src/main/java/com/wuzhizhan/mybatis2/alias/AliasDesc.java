@@ -3,6 +3,8 @@ package com.wuzhizhan.mybatis2.alias;
 import com.intellij.psi.PsiClass;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Locale;
+
 /**
  * @author yanglin
  */
@@ -64,7 +66,7 @@ public class AliasDesc {
     @Override
     public int hashCode() {
         int result = clazz != null ? clazz.hashCode() : 0;
-        result = 31 * result + (alias != null ? alias.hashCode() : 0);
+        result = 31 * result + (alias != null ? alias.toLowerCase(Locale.ROOT).hashCode() : 0);
         return result;
     }
 }
@@ -1,17 +1,32 @@
 package com.wuzhizhan.mybatis2.alias;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.lang.xml.XMLLanguage;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiUtilCore;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -19,6 +34,10 @@ import java.util.Optional;
  */
 public class AliasFacade {
 
+    private static final Key<CachedValue<AliasTable>> ALIAS_TABLE_KEY = Key.create("mybatis2.alias.table");
+
+    private static final Key<CachedValue<List<AliasDesc>>> ALL_ALIAS_DESCS_KEY = Key.create("mybatis2.alias.descs");
+
     private final Project project;
 
     private final JavaPsiFacade javaPsiFacade;
@@ -50,45 +69,93 @@ public class AliasFacade {
 
     @NotNull
     public Optional<PsiClass> findPsiClass(@Nullable PsiElement element, @NotNull String shortName) {
-        PsiClass clazz = javaPsiFacade.findClass(shortName, GlobalSearchScope.allScope(project));
-        if (null != clazz) {
-            return Optional.of(clazz);
-        }
-        for (AliasResolver resolver : resolvers) {
-            for (AliasDesc desc : resolver.getClassAliasDescriptions(element)) {
-                if (shortName.equalsIgnoreCase(desc.getAlias())) {
-                    return Optional.of(desc.getClazz());
-                }
-            }
+        AliasDesc desc = getAliasTable(element).byAlias.get(shortName.toLowerCase(Locale.ROOT));
+        if (null != desc) {
+            return Optional.of(desc.getClazz());
         }
-        return Optional.empty();
+        return Optional.ofNullable(javaPsiFacade.findClass(shortName, GlobalSearchScope.allScope(project)));
     }
 
     @NotNull
     public Collection<AliasDesc> getAliasDescs(@Nullable PsiElement element) {
-        ArrayList<AliasDesc> result = Lists.newArrayList();
-        for (AliasResolver resolver : resolvers) {
-            result.addAll(resolver.getClassAliasDescriptions(element));
-        }
-        return result;
+        return getAliasTable(element).descs;
     }
 
     public Optional<AliasDesc> findAliasDesc(@Nullable PsiClass clazz) {
         if (clazz == null) {
             return Optional.empty();
         }
-        for (AliasResolver resolver : resolvers) {
-            for (AliasDesc desc : resolver.getClassAliasDescriptions(clazz)) {
-                if (clazz.equals(desc.getClazz())) {
-                    return Optional.of(desc);
-                }
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(getAliasTable(clazz).byClass.get(clazz));
     }
 
     public void registerResolver(@NotNull AliasResolver resolver) {
         this.resolvers.add(resolver);
     }
 
+    /**
+     * The table of the module of the element, or of the project outside of modules. Tables are built from the
+     * descriptions of all resolvers, collected once for the project, and dropped on java or xml psi changes or
+     * project roots changes.
+     */
+    @NotNull
+    private AliasTable getAliasTable(@Nullable PsiElement element) {
+        Module module = null == element ? null : ModuleUtilCore.findModuleForPsiElement(element);
+        if (null == module) {
+            return CachedValuesManager.getManager(project).getCachedValue(project, ALIAS_TABLE_KEY, () ->
+                    CachedValueProvider.Result.create(new AliasTable(getAllAliasDescs(), null), getDependencies()), false);
+        }
+        return CachedValuesManager.getManager(project).getCachedValue(module, ALIAS_TABLE_KEY, () ->
+                CachedValueProvider.Result.create(new AliasTable(getAllAliasDescs(),
+                        module.getModuleWithDependenciesAndLibrariesScope(true)), getDependencies()), false);
+    }
+
+    @NotNull
+    private List<AliasDesc> getAllAliasDescs() {
+        return CachedValuesManager.getManager(project).getCachedValue(project, ALL_ALIAS_DESCS_KEY, () -> {
+            ImmutableList.Builder<AliasDesc> builder = ImmutableList.builder();
+            for (AliasResolver resolver : resolvers) {
+                for (AliasDesc desc : resolver.getClassAliasDescriptions(null)) {
+                    if (null != desc.getAlias() && null != desc.getClazz()) {
+                        builder.add(desc);
+                    }
+                }
+            }
+            return CachedValueProvider.Result.create(builder.build(), getDependencies());
+        }, false);
+    }
+
+    private Object[] getDependencies() {
+        return new Object[]{
+                PsiModificationTracker.getInstance(project).forLanguage(JavaLanguage.INSTANCE),
+                PsiModificationTracker.getInstance(project).forLanguage(XMLLanguage.INSTANCE),
+                ProjectRootManager.getInstance(project)};
+    }
+
+    /**
+     * The aliases whose class is visible from one module, the first resolver declaring an alias or class wins
+     */
+    private static final class AliasTable {
+
+        private final Map<String, AliasDesc> byAlias = new HashMap<>();
+
+        private final Map<PsiClass, AliasDesc> byClass = new HashMap<>();
+
+        private final List<AliasDesc> descs;
+
+        private AliasTable(@NotNull List<AliasDesc> allDescs, @Nullable GlobalSearchScope scope) {
+            ImmutableList.Builder<AliasDesc> builder = ImmutableList.builder();
+            for (AliasDesc desc : allDescs) {
+                VirtualFile file = PsiUtilCore.getVirtualFile(desc.getClazz());
+                if (null != scope && null != file && !scope.contains(file)) {
+                    continue;
+                }
+                builder.add(desc);
+                byAlias.putIfAbsent(desc.getAlias().toLowerCase(Locale.ROOT), desc);
+                byClass.putIfAbsent(desc.getClazz(), desc);
+            }
+            this.descs = builder.build();
+        }
+
+    }
+
 }
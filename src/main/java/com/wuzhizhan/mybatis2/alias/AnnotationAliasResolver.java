@@ -1,42 +1,50 @@
 package com.wuzhizhan.mybatis2.alias;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Collections2;
-import com.google.common.collect.Sets;
+import com.google.common.collect.ImmutableSet;
+import com.intellij.lang.java.JavaLanguage;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.ProjectScope;
 import com.intellij.psi.search.searches.AnnotatedElementsSearch;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.wuzhizhan.mybatis2.annotation.Annotation;
+import com.wuzhizhan.mybatis2.index.TypeAliasIndex;
 import com.wuzhizhan.mybatis2.util.JavaUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 
 /**
+ * Aliases declared by {@code @Alias}: source classes come from the {@link TypeAliasIndex},
+ * compiled library classes are searched once per change of the project roots.
+ *
  * @author yanglin
  */
 public class AnnotationAliasResolver extends AliasResolver {
 
-    private static final Function FUN = new Function<PsiClass, AliasDesc>() {
-        @Override
-        public AliasDesc apply(PsiClass psiClass) {
-            Optional<String> txt = JavaUtils.getAnnotationValueText(psiClass, Annotation.ALIAS);
-            if (!txt.isPresent()) return null;
-            AliasDesc ad = new AliasDesc();
-            ad.setAlias(txt.get());
-            ad.setClazz(psiClass);
-            return ad;
-        }
-    };
+    private final CachedValue<Set<AliasDesc>> sourceAliasDescs;
+
+    private final CachedValue<Set<AliasDesc>> libraryAliasDescs;
 
     public AnnotationAliasResolver(Project project) {
         super(project);
+        CachedValuesManager manager = CachedValuesManager.getManager(project);
+        this.sourceAliasDescs = manager.createCachedValue(() -> CachedValueProvider.Result.create(
+                collectSourceAliasDescs(),
+                PsiModificationTracker.getInstance(project).forLanguage(JavaLanguage.INSTANCE),
+                ProjectRootManager.getInstance(project)), false);
+        this.libraryAliasDescs = manager.createCachedValue(() -> CachedValueProvider.Result.create(
+                collectLibraryAliasDescs(),
+                ProjectRootManager.getInstance(project)), false);
     }
 
     public static final AnnotationAliasResolver getInstance(@NotNull Project project) {
@@ -46,12 +54,36 @@ public class AnnotationAliasResolver extends AliasResolver {
     @NotNull
     @Override
     public Set<AliasDesc> getClassAliasDescriptions(@Nullable PsiElement element) {
-        Optional<PsiClass> clazz = Annotation.ALIAS.toPsiClass(project);
-        if (clazz.isPresent()) {
-            Collection<PsiClass> res = AnnotatedElementsSearch.searchPsiClasses(clazz.get(), GlobalSearchScope.allScope(project)).findAll();
-            return Sets.newHashSet(Collections2.transform(res, FUN));
+        Set<AliasDesc> libraries = libraryAliasDescs.getValue();
+        Set<AliasDesc> sources = sourceAliasDescs.getValue();
+        return libraries.isEmpty() ? sources : ImmutableSet.<AliasDesc>builder().addAll(sources).addAll(libraries).build();
+    }
+
+    private Set<AliasDesc> collectSourceAliasDescs() {
+        ImmutableSet.Builder<AliasDesc> builder = ImmutableSet.builder();
+        GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        for (String alias : TypeAliasIndex.getAllAliases(project)) {
+            for (String className : TypeAliasIndex.getClassNames(alias, scope)) {
+                PsiClass clazz = javaPsiFacade.findClass(className, scope);
+                if (null != clazz && JavaUtils.isAnnotationPresent(clazz, Annotation.ALIAS)) {
+                    builder.add(AliasDesc.create(clazz, alias));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private Set<AliasDesc> collectLibraryAliasDescs() {
+        Optional<PsiClass> aliasClazz = Annotation.ALIAS.toPsiClass(project);
+        if (!aliasClazz.isPresent()) {
+            return ImmutableSet.of();
+        }
+        ImmutableSet.Builder<AliasDesc> builder = ImmutableSet.builder();
+        for (PsiClass clazz : AnnotatedElementsSearch.searchPsiClasses(aliasClazz.get(), ProjectScope.getLibrariesScope(project)).findAll()) {
+            JavaUtils.getAnnotationValueText(clazz, Annotation.ALIAS).ifPresent(alias -> builder.add(AliasDesc.create(clazz, alias)));
         }
-        return Collections.emptySet();
+        return builder.build();
     }
 
 }
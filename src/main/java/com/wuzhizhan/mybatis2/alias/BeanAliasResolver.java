@@ -1,13 +1,22 @@
 package com.wuzhizhan.mybatis2.alias;
 
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.spring.CommonSpringModel;
 import com.intellij.spring.SpringManager;
+import com.intellij.spring.SpringModificationTrackersManager;
 import com.intellij.spring.model.SpringBeanPointer;
 import com.intellij.spring.model.utils.SpringPropertyUtils;
 import com.intellij.spring.model.xml.beans.SpringPropertyDefinition;
@@ -26,6 +35,8 @@ public class BeanAliasResolver extends PackageAliasResolver {
 
     private static final String MAPPER_ALIAS_PACKAGE_CLASS = "org.mybatis.spring.SqlSessionFactoryBean";
     private static final String MAPPER_ALIAS_PROPERTY = "typeAliasesPackage";
+    private static final Splitter PACKAGE_SPLITTER = Splitter.on(CharMatcher.anyOf(",; \t\n")).trimResults().omitEmptyStrings();
+    private static final Key<CachedValue<Set<String>>> PACKAGES_KEY = Key.create("mybatis2.bean.alias.packages");
     private ModuleManager moduleManager;
     private SpringManager springManager;
 
@@ -40,34 +51,43 @@ public class BeanAliasResolver extends PackageAliasResolver {
     public Collection<String> getPackages(@Nullable PsiElement element) {
         Set<String> res = Sets.newHashSet();
         for (Module module : moduleManager.getModules()) {
-            for (CommonSpringModel springModel : springManager.getCombinedModel(module).getRelatedModels()) {
-                addPackages(res, springModel);
-            }
+            res.addAll(getPackages(module));
         }
         return res;
     }
 
-    private void addPackages(Set<String> res, CommonSpringModel springModel) {
-        Optional<PsiClass> sqlSessionFactoryClazzOpt = JavaUtils.findClazz(project, MAPPER_ALIAS_PACKAGE_CLASS);
-        if (sqlSessionFactoryClazzOpt.isPresent()) {
-            Collection<SpringBeanPointer<?>> domBeans = springModel.getAllCommonBeans();
-            PsiClass sqlSessionFactoryClazz = sqlSessionFactoryClazzOpt.get();
+    /**
+     * The typeAliasesPackage values of the SqlSessionFactoryBeans of the module, kept until its spring model changes
+     */
+    @NotNull
+    private Set<String> getPackages(@NotNull Module module) {
+        return CachedValuesManager.getManager(project).getCachedValue(module, PACKAGES_KEY, () -> {
+            ImmutableSet.Builder<String> res = ImmutableSet.builder();
+            Optional<PsiClass> sqlSessionFactoryClazz = JavaUtils.findClazz(project, MAPPER_ALIAS_PACKAGE_CLASS);
+            if (sqlSessionFactoryClazz.isPresent()) {
+                for (CommonSpringModel springModel : springManager.getCombinedModel(module).getRelatedModels()) {
+                    addPackages(res, springModel, sqlSessionFactoryClazz.get());
+                }
+            }
+            return CachedValueProvider.Result.create(res.build(),
+                    SpringModificationTrackersManager.getInstance(project).getOuterModelsModificationTracker(),
+                    ProjectRootManager.getInstance(project));
+        }, false);
+    }
 
-            for (SpringBeanPointer<?> domBean : domBeans) {
-                PsiClass beanClass = domBean.getBeanClass();
-                if (beanClass != null && beanClass.equals(sqlSessionFactoryClazz)) {
-                    SpringPropertyDefinition basePackages = SpringPropertyUtils.findPropertyByName(domBean.getSpringBean(), MAPPER_ALIAS_PROPERTY);
-                    if (basePackages != null) {
-                        final String value = basePackages.getValueElement().getStringValue();
-                        if (value != null) {
-                            res.add(value);
-                        }
+    private void addPackages(ImmutableSet.Builder<String> res, CommonSpringModel springModel, PsiClass sqlSessionFactoryClazz) {
+        for (SpringBeanPointer<?> domBean : springModel.getAllCommonBeans()) {
+            PsiClass beanClass = domBean.getBeanClass();
+            if (beanClass != null && beanClass.equals(sqlSessionFactoryClazz)) {
+                SpringPropertyDefinition basePackages = SpringPropertyUtils.findPropertyByName(domBean.getSpringBean(), MAPPER_ALIAS_PROPERTY);
+                if (basePackages != null) {
+                    final String value = basePackages.getValueElement().getStringValue();
+                    if (value != null) {
+                        res.addAll(PACKAGE_SPLITTER.split(value));
                     }
                 }
             }
-
         }
-
     }
 
 }
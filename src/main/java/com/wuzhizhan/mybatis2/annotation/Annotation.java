@@ -36,6 +36,8 @@ public class Annotation implements Cloneable {
 
     public static final Annotation RESOURCE = new Annotation("@Resource", "javax.annotation.Resource");
 
+    public static final Annotation REQUIRED_ARGS_CONSTRUCTOR = new Annotation("@RequiredArgsConstructor", "lombok.RequiredArgsConstructor");
+
     public static final Set<Annotation> STATEMENT_SYMMETRIES = ImmutableSet.of(SELECT, UPDATE, INSERT, DELETE);
 
     private final String label;
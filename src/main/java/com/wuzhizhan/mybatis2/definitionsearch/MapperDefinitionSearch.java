@@ -1,16 +1,28 @@
 package com.wuzhizhan.mybatis2.definitionsearch;
 
 import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiSearchScopeUtil;
+import com.intellij.psi.search.SearchScope;
 import com.intellij.psi.search.searches.DefinitionsScopedSearch;
 import com.intellij.psi.xml.XmlElement;
 import com.intellij.util.Processor;
 import com.intellij.util.xml.DomElement;
-import com.wuzhizhan.mybatis2.service.JavaService;
+import com.wuzhizhan.mybatis2.dom.model.Mapper;
+import com.wuzhizhan.mybatis2.index.MapperNamespaceIndex;
+import com.wuzhizhan.mybatis2.index.MapperStatementIndex;
+import com.wuzhizhan.mybatis2.util.DomUtils;
+import com.wuzhizhan.mybatis2.util.MapperUtils;
 import org.jetbrains.annotations.NotNull;
 
 
 /**
+ * Statements and mappers of a mapper interface, streamed from the indexes within the requested scope
+ *
  * @author yanglin
  */
 public class MapperDefinitionSearch extends QueryExecutorBase<XmlElement, DefinitionsScopedSearch.SearchParameters> {
@@ -23,9 +35,31 @@ public class MapperDefinitionSearch extends QueryExecutorBase<XmlElement, Defini
     public void processQuery(@NotNull DefinitionsScopedSearch.SearchParameters queryParameters,
                              @NotNull Processor<? super XmlElement> consumer) {
         final PsiElement element = queryParameters.getElement();
+        final PsiClass clazz = element instanceof PsiMethod ? ((PsiMethod) element).getContainingClass()
+                : element instanceof PsiClass ? (PsiClass) element : null;
+        final Project project = queryParameters.getProject();
+        if (!MapperUtils.isMapperNamespace(project, clazz)) {
+            return;
+        }
 
-        Processor<DomElement> processor = domElement -> consumer.process(domElement.getXmlElement());
+        SearchScope searchScope = queryParameters.getScope();
+        GlobalSearchScope scope = searchScope instanceof GlobalSearchScope
+                ? (GlobalSearchScope) searchScope : GlobalSearchScope.allScope(project);
+        Processor<DomElement> processor = domElement -> {
+            XmlElement xmlElement = domElement.getXmlElement();
+            return null == xmlElement || !PsiSearchScopeUtil.isInScope(searchScope, xmlElement) || consumer.process(xmlElement);
+        };
 
-        JavaService.getInstance(queryParameters.getProject()).process(element, processor);
+        String ns = clazz.getQualifiedName();
+        if (element instanceof PsiMethod) {
+            String signature = MapperStatementIndex.getSignature(ns, ((PsiMethod) element).getName());
+            MapperStatementIndex.processStatements(project, signature, scope, processor::process);
+        } else {
+            for (Mapper mapper : DomUtils.findDomElements(project, Mapper.class, MapperNamespaceIndex.getFiles(ns, scope))) {
+                if (!processor.process(mapper)) {
+                    return;
+                }
+            }
+        }
     }
 }
@@ -14,6 +14,8 @@ import com.intellij.psi.xml.XmlAttributeValue;
 import com.intellij.util.xml.*;
 import com.wuzhizhan.mybatis2.dom.model.IdDomElement;
 import com.wuzhizhan.mybatis2.dom.model.Mapper;
+import com.wuzhizhan.mybatis2.service.MybatisModel;
+import com.wuzhizhan.mybatis2.service.MybatisModelService;
 import com.wuzhizhan.mybatis2.util.MapperUtils;
 import com.wuzhizhan.mybatis2.util.MybatisConstants;
 import org.jetbrains.annotations.NonNls;
@@ -40,9 +42,35 @@ public abstract class IdBasedTagConverter extends ConverterAdaptor<XmlAttributeV
     @Nullable
     @Override
     public XmlAttributeValue fromString(@Nullable @NonNls String value, ConvertContext context) {
+        if (null == value) {
+            return null;
+        }
+        if (crossMapperSupported) {
+            return findIdDomElement(value, context).orElse(null);
+        }
         return matchIdDomElement(selectStrategy(context).getValue(), value, context).orElse(null);
     }
 
+    @NotNull
+    private Optional<XmlAttributeValue> findIdDomElement(@NotNull String value, ConvertContext context) {
+        String contextNamespace = MapperUtils.getNamespace(context.getInvocationElement());
+        MybatisModel model = getModel(context);
+        for (IdDomElement idDomElement : getIdTable(model).find(contextNamespace, value)) {
+            if (isCandidate(idDomElement, context)) {
+                return Optional.ofNullable(idDomElement.getId().getXmlAttributeValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The model of the module of the converted file, so mappers of unrelated modules are not considered
+     */
+    @NotNull
+    private MybatisModel getModel(@NotNull ConvertContext context) {
+        return MybatisModelService.getInstance(context.getProject()).getModel(context.getModule());
+    }
+
     @NotNull
     private Optional<XmlAttributeValue> matchIdDomElement(Collection<? extends IdDomElement> idDomElements, String value, ConvertContext context) {
         Mapper contextMapper = MapperUtils.getMapper(context.getInvocationElement());
@@ -77,6 +105,19 @@ public abstract class IdBasedTagConverter extends ConverterAdaptor<XmlAttributeV
     @NotNull
     public abstract Collection<? extends IdDomElement> getComparisons(@Nullable Mapper mapper, ConvertContext context);
 
+    /**
+     * The elements of all mappers this converter refers to, hashed by id
+     */
+    @NotNull
+    protected abstract MybatisModel.IdTable<? extends IdDomElement> getIdTable(@NotNull MybatisModel model);
+
+    /**
+     * Whether the element of the id table may be referred to from the context
+     */
+    protected boolean isCandidate(@NotNull IdDomElement element, ConvertContext context) {
+        return true;
+    }
+
     private abstract class TraverseStrategy {
         protected ConvertContext context;
 
@@ -108,9 +149,12 @@ public abstract class IdBasedTagConverter extends ConverterAdaptor<XmlAttributeV
 
         @Override
         public Collection<? extends IdDomElement> getValue() {
+            MybatisModel model = getModel(context);
             List<IdDomElement> result = Lists.newArrayList();
-            for (Mapper mapper : MapperUtils.findMappers(context.getProject())) {
-                result.addAll(getComparisons(mapper, context));
+            for (IdDomElement element : getIdTable(model).getElements()) {
+                if (isCandidate(element, context)) {
+                    result.add(element);
+                }
             }
             return result;
         }
@@ -179,13 +223,40 @@ public abstract class IdBasedTagConverter extends ConverterAdaptor<XmlAttributeV
         @NotNull
         @Override
         public Object[] getVariants() {
-            Set<String> res = getElement().getText().contains(MybatisConstants.DOT_SEPARATOR) ? setupContextIdSignature() : setupGlobalIdSignature();
+            boolean qualified = getElement().getText().contains(MybatisConstants.DOT_SEPARATOR);
+            if (crossMapperSupported) {
+                MybatisModel.IdTable<? extends IdDomElement> idTable = getIdTable(getModel(context));
+                String namespace = qualified ? getNamespaceOfText() : MapperUtils.getNamespace(context.getInvocationElement());
+                List<String> res = qualified ? idTable.getIds(namespace) : idTable.getVariants(namespace);
+                return filterCandidates(idTable, namespace, res).toArray(new String[0]);
+            }
+            Set<String> res = qualified ? setupContextIdSignature() : setupGlobalIdSignature();
             return res.toArray(new String[0]);
         }
 
+        /**
+         * The cached variants whose elements may be referred to from the context
+         */
+        private List<String> filterCandidates(MybatisModel.IdTable<? extends IdDomElement> idTable, String namespace, List<String> variants) {
+            List<String> res = Lists.newArrayListWithCapacity(variants.size());
+            for (String variant : variants) {
+                for (IdDomElement element : idTable.find(namespace, variant)) {
+                    if (isCandidate(element, context)) {
+                        res.add(variant);
+                        break;
+                    }
+                }
+            }
+            return res;
+        }
+
+        private String getNamespaceOfText() {
+            return text.substring(0, text.lastIndexOf(MybatisConstants.DOT_SEPARATOR));
+        }
+
         private Set<String> setupContextIdSignature() {
             Set<String> res = Sets.newHashSet();
-            String ns = text.substring(0, text.lastIndexOf(MybatisConstants.DOT_SEPARATOR));
+            String ns = getNamespaceOfText();
             for (IdDomElement ele : selectStrategy(context).getValue()) {
                 if (MapperUtils.getNamespace(ele).equals(ns)) {
                     res.add(MapperUtils.getId(ele));
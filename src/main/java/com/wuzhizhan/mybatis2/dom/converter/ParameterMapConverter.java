@@ -3,6 +3,8 @@ package com.wuzhizhan.mybatis2.dom.converter;
 import com.intellij.util.xml.ConvertContext;
 import com.wuzhizhan.mybatis2.dom.model.IdDomElement;
 import com.wuzhizhan.mybatis2.dom.model.Mapper;
+import com.wuzhizhan.mybatis2.dom.model.ParameterMap;
+import com.wuzhizhan.mybatis2.service.MybatisModel;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -20,4 +22,10 @@ public class ParameterMapConverter extends IdBasedTagConverter {
         return mapper.getParameterMaps();
     }
 
+    @NotNull
+    @Override
+    protected MybatisModel.IdTable<ParameterMap> getIdTable(@NotNull MybatisModel model) {
+        return model.getParameterMaps();
+    }
+
 }
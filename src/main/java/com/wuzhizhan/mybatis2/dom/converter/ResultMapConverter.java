@@ -7,11 +7,13 @@ import com.intellij.util.xml.DomElement;
 import com.wuzhizhan.mybatis2.dom.model.IdDomElement;
 import com.wuzhizhan.mybatis2.dom.model.Mapper;
 import com.wuzhizhan.mybatis2.dom.model.ResultMap;
+import com.wuzhizhan.mybatis2.service.MybatisModel;
 import com.wuzhizhan.mybatis2.util.MapperUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.Objects;
 
 /**
  * @author yanglin
@@ -29,6 +31,23 @@ public class ResultMapConverter extends IdBasedTagConverter {
         }
     }
 
+    @NotNull
+    @Override
+    protected MybatisModel.IdTable<ResultMap> getIdTable(@NotNull MybatisModel model) {
+        return model.getResultMaps();
+    }
+
+    /**
+     * A resultMap can not extend itself
+     */
+    @Override
+    protected boolean isCandidate(@NotNull IdDomElement element, ConvertContext context) {
+        DomElement parent = context.getInvocationElement().getParent();
+        return !(parent instanceof ResultMap)
+                || !MapperUtils.isMapperWithSameNamespace(MapperUtils.getMapper(parent), MapperUtils.getMapper(element))
+                || !Objects.equals(MapperUtils.getId(element), MapperUtils.getId((ResultMap) parent));
+    }
+
     private boolean isContextElementOfResultMap(Mapper mapper, DomElement invocationElement) {
         return MapperUtils.isMapperWithSameNamespace(MapperUtils.getMapper(invocationElement), mapper)
                 && invocationElement.getParent() instanceof ResultMap;
@@ -3,6 +3,8 @@ package com.wuzhizhan.mybatis2.dom.converter;
 import com.intellij.util.xml.ConvertContext;
 import com.wuzhizhan.mybatis2.dom.model.IdDomElement;
 import com.wuzhizhan.mybatis2.dom.model.Mapper;
+import com.wuzhizhan.mybatis2.dom.model.Sql;
+import com.wuzhizhan.mybatis2.service.MybatisModel;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -19,4 +21,10 @@ public class SqlConverter extends IdBasedTagConverter {
         return mapper.getSqls();
     }
 
+    @NotNull
+    @Override
+    protected MybatisModel.IdTable<Sql> getIdTable(@NotNull MybatisModel model) {
+        return model.getSqls();
+    }
+
 }
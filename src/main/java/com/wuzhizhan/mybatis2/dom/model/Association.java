@@ -10,7 +10,7 @@ import org.jetbrains.annotations.NotNull;
 /**
  * @author yanglin
  */
-public interface Association extends GroupFour, ResultMapGroup, PropertyGroup {
+public interface Association extends GroupFour, ResultMapGroup, PropertyGroup, NestedQueryGroup {
 
     @NotNull
     @Attribute("javaType")
@@ -10,7 +10,7 @@ import org.jetbrains.annotations.NotNull;
 /**
  * @author yanglin
  */
-public interface Collection extends GroupFour, ResultMapGroup, PropertyGroup {
+public interface Collection extends GroupFour, ResultMapGroup, PropertyGroup, NestedQueryGroup {
 
     @NotNull
     @Attribute("ofType")
@@ -0,0 +1,28 @@
+package com.wuzhizhan.mybatis2.dom.model;
+
+import com.intellij.util.xml.Attribute;
+import com.intellij.util.xml.DomElement;
+import com.intellij.util.xml.GenericAttributeValue;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Attributes of an association or collection loaded by a nested select, or mapped from joined columns
+ */
+public interface NestedQueryGroup extends DomElement {
+
+    @NotNull
+    @Attribute("select")
+    GenericAttributeValue<String> getSelect();
+
+    @NotNull
+    @Attribute("column")
+    GenericAttributeValue<String> getColumn();
+
+    @NotNull
+    @Attribute("fetchType")
+    GenericAttributeValue<String> getFetchType();
+
+    @NotNull
+    @Attribute("columnPrefix")
+    GenericAttributeValue<String> getColumnPrefix();
+}
@@ -434,6 +434,9 @@ public class MybatisGenerator {
 				PluginConfiguration mySQLLimitPlugin = new PluginConfiguration();
 				String pluginClassName = MySQLLimitPlugin.class.getName();
 				mySQLLimitPlugin.addProperty("type", pluginClassName);
+				if (!StringUtils.isEmpty(config.getPagination())) {
+					mySQLLimitPlugin.addProperty("pagination", config.getPagination());
+				}
 				mySQLLimitPlugin.setConfigurationType(pluginClassName);
 				context.addPluginConfiguration(mySQLLimitPlugin);
 			}
@@ -1,6 +1,7 @@
 package com.wuzhizhan.mybatis2.generate.plugin;
 
 import java.util.List;
+import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
 import org.mybatis.generator.api.dom.java.Field;
@@ -12,69 +13,109 @@ import org.mybatis.generator.api.dom.java.PrimitiveTypeWrapper;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.VisitableElement;
 import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
 
+/**
+ * Adds limit/offset to the selectByExample statements. The {@code pagination} property chooses the sql:
+ * <ul>
+ * <li>{@code substitution} (default): {@code limit ${offset}, ${limit}}</li>
+ * <li>{@code bound}: {@code limit #{limit} offset #{offset}}, one statement text for every page</li>
+ * <li>{@code keyset}: as {@code bound}, plus a {@code lastId} example field seeking past the last primary key read,
+ * {@code where pk > #{lastId} order by pk limit #{limit}}, whose cost does not grow with the page depth.
+ * Tables without a single column primary key fall back to {@code bound}.</li>
+ * </ul>
+ */
 public class MySQLLimitPlugin extends PluginAdapter {
+
+    private static final String SUBSTITUTION = "substitution";
+
+    private static final String BOUND = "bound";
+
+    private static final String KEYSET = "keyset";
+
     public boolean validate(List<String> list) {
+        String pagination = getPagination();
+        if (!SUBSTITUTION.equals(pagination) && !BOUND.equals(pagination) && !KEYSET.equals(pagination)) {
+            list.add("Unknown pagination \"" + pagination + "\" of MySQLLimitPlugin, expected substitution, bound or keyset");
+            return false;
+        }
         return true;
     }
 
     public boolean modelExampleClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         PrimitiveTypeWrapper integerWrapper = FullyQualifiedJavaType.getIntInstance().getPrimitiveTypeWrapper();
         PrimitiveTypeWrapper longWrapper = (new FullyQualifiedJavaType("long")).getPrimitiveTypeWrapper();
-        Field limit = new Field("limit", integerWrapper);
-        limit.setName("limit");
-        limit.setVisibility(JavaVisibility.PRIVATE);
-        limit.setType(integerWrapper);
-        topLevelClass.addField(limit);
-        Method setLimit = new Method("setLimit");
-        setLimit.setVisibility(JavaVisibility.PUBLIC);
-        setLimit.setName("setLimit");
-        setLimit.addParameter(new Parameter(integerWrapper, "limit"));
-        setLimit.addBodyLine("this.limit = limit;");
-        topLevelClass.addMethod(setLimit);
-        Method getLimit = new Method("getLimit");
-        getLimit.setVisibility(JavaVisibility.PUBLIC);
-        getLimit.setReturnType(integerWrapper);
-        getLimit.setName("getLimit");
-        getLimit.addBodyLine("return limit;");
-        topLevelClass.addMethod(getLimit);
-        Field offset = new Field("offset", longWrapper);
-        offset.setName("offset");
-        offset.setVisibility(JavaVisibility.PRIVATE);
-        offset.setType(longWrapper);
-        topLevelClass.addField(offset);
-        Method setOffset = new Method("setOffset");
-        setOffset.setVisibility(JavaVisibility.PUBLIC);
-        setOffset.setName("setOffset");
-        setOffset.addParameter(new Parameter(longWrapper, "offset"));
-        setOffset.addBodyLine("this.offset = offset;");
-        topLevelClass.addMethod(setOffset);
-        Method getOffset = new Method("getOffset");
-        getOffset.setVisibility(JavaVisibility.PUBLIC);
-        getOffset.setReturnType(longWrapper);
-        getOffset.setName("getOffset");
-        getOffset.addBodyLine("return offset;");
-        topLevelClass.addMethod(getOffset);
+        addProperty(topLevelClass, "limit", integerWrapper);
+        addProperty(topLevelClass, "offset", longWrapper);
+        IntrospectedColumn keyColumn = getKeysetColumn(introspectedTable);
+        if (keyColumn != null) {
+            addProperty(topLevelClass, "lastId", keyColumn.getFullyQualifiedJavaType());
+        }
         return true;
     }
 
     public boolean sqlMapSelectByExampleWithoutBLOBsElementGenerated(XmlElement element, IntrospectedTable introspectedTable) {
+        addPagination(element, introspectedTable);
+        return true;
+    }
+
+    public boolean sqlMapSelectByExampleWithBLOBsElementGenerated(XmlElement element, IntrospectedTable introspectedTable) {
+        addPagination(element, introspectedTable);
+        return true;
+    }
+
+    private String getPagination() {
+        String pagination = properties.getProperty("pagination");
+        return pagination == null || pagination.trim().isEmpty() ? SUBSTITUTION : pagination.trim();
+    }
+
+    /**
+     * The primary key column of the table in keyset pagination, null otherwise
+     */
+    private IntrospectedColumn getKeysetColumn(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> primaryKeyColumns = introspectedTable.getPrimaryKeyColumns();
+        return KEYSET.equals(getPagination()) && primaryKeyColumns.size() == 1 ? primaryKeyColumns.get(0) : null;
+    }
+
+    private void addProperty(TopLevelClass topLevelClass, String name, FullyQualifiedJavaType type) {
+        Field field = new Field(name, type);
+        field.setVisibility(JavaVisibility.PRIVATE);
+        topLevelClass.addField(field);
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        Method setter = new Method("set" + suffix);
+        setter.setVisibility(JavaVisibility.PUBLIC);
+        setter.addParameter(new Parameter(type, name));
+        setter.addBodyLine("this." + name + " = " + name + ";");
+        topLevelClass.addMethod(setter);
+        Method getter = new Method("get" + suffix);
+        getter.setVisibility(JavaVisibility.PUBLIC);
+        getter.setReturnType(type);
+        getter.addBodyLine("return " + name + ";");
+        topLevelClass.addMethod(getter);
+    }
+
+    private void addPagination(XmlElement element, IntrospectedTable introspectedTable) {
+        if (SUBSTITUTION.equals(getPagination())) {
+            addSubstitutedLimit(element);
+            return;
+        }
+        IntrospectedColumn keyColumn = getKeysetColumn(introspectedTable);
+        if (keyColumn != null) {
+            addKeyset(element, keyColumn);
+        }
         XmlElement ifLimitNotNullElement = new XmlElement("if");
         ifLimitNotNullElement.addAttribute(new Attribute("test", "limit != null"));
+        ifLimitNotNullElement.addElement(new TextElement("limit #{limit}"));
         XmlElement ifOffsetNotNullElement = new XmlElement("if");
         ifOffsetNotNullElement.addAttribute(new Attribute("test", "offset != null"));
-        ifOffsetNotNullElement.addElement(new TextElement("limit ${offset}, ${limit}"));
+        ifOffsetNotNullElement.addElement(new TextElement("offset #{offset}"));
         ifLimitNotNullElement.addElement(ifOffsetNotNullElement);
-        XmlElement ifOffsetNullElement = new XmlElement("if");
-        ifOffsetNullElement.addAttribute(new Attribute("test", "offset == null"));
-        ifOffsetNullElement.addElement(new TextElement("limit ${limit}"));
-        ifLimitNotNullElement.addElement(ifOffsetNullElement);
         element.addElement(ifLimitNotNullElement);
-        return true;
     }
 
-    public boolean sqlMapSelectByExampleWithBLOBsElementGenerated(XmlElement element, IntrospectedTable introspectedTable) {
+    private void addSubstitutedLimit(XmlElement element) {
         XmlElement ifLimitNotNullElement = new XmlElement("if");
         ifLimitNotNullElement.addAttribute(new Attribute("test", "limit != null"));
         XmlElement ifOffsetNotNullElement = new XmlElement("if");
@@ -86,6 +127,53 @@ public class MySQLLimitPlugin extends PluginAdapter {
         ifOffsetNullElement.addElement(new TextElement("limit ${limit}"));
         ifLimitNotNullElement.addElement(ifOffsetNullElement);
         element.addElement(ifLimitNotNullElement);
-        return true;
+    }
+
+    /**
+     * Replaces the example where clause by one also seeking past lastId, and orders by the key when seeking
+     * or when no other order is asked
+     */
+    private void addKeyset(XmlElement element, IntrospectedColumn keyColumn) {
+        String column = MyBatis3FormattingUtilities.getAliasedEscapedColumnName(keyColumn);
+        List<VisitableElement> elements = element.getElements();
+        for (int i = 0; i < elements.size(); i++) {
+            if (isIfElement(elements.get(i), "_parameter != null")) {
+                XmlElement whereElement = new XmlElement("where");
+                XmlElement ifLastIdNotNullElement = new XmlElement("if");
+                ifLastIdNotNullElement.addAttribute(new Attribute("test", "lastId != null"));
+                ifLastIdNotNullElement.addElement(new TextElement(column + " &gt; #{lastId,jdbcType="
+                        + keyColumn.getJdbcTypeName() + "}"));
+                whereElement.addElement(ifLastIdNotNullElement);
+                XmlElement trimElement = new XmlElement("trim");
+                trimElement.addAttribute(new Attribute("prefix", "and ("));
+                trimElement.addAttribute(new Attribute("suffix", ")"));
+                trimElement.addAttribute(new Attribute("prefixOverrides", "where"));
+                trimElement.addElement(elements.get(i));
+                whereElement.addElement(trimElement);
+                elements.set(i, whereElement);
+            } else if (isIfElement(elements.get(i), "orderByClause != null")) {
+                XmlElement chooseElement = new XmlElement("choose");
+                XmlElement whenElement = new XmlElement("when");
+                whenElement.addAttribute(new Attribute("test", "lastId != null or orderByClause == null"));
+                whenElement.addElement(new TextElement("order by " + column));
+                chooseElement.addElement(whenElement);
+                XmlElement otherwiseElement = new XmlElement("otherwise");
+                otherwiseElement.addElement(new TextElement("order by ${orderByClause}"));
+                chooseElement.addElement(otherwiseElement);
+                elements.set(i, chooseElement);
+            }
+        }
+    }
+
+    private boolean isIfElement(VisitableElement element, String test) {
+        if (!(element instanceof XmlElement) || !"if".equals(((XmlElement) element).getName())) {
+            return false;
+        }
+        for (Attribute attribute : ((XmlElement) element).getAttributes()) {
+            if ("test".equals(attribute.getName()) && test.equals(attribute.getValue())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,99 @@
+package com.wuzhizhan.mybatis2.index;
+
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Maps the namespace of every mapper xml to the files declaring it, so that looking up the mappers
+ * of one interface does not need to build the dom of every mapper in the project.
+ */
+public class MapperNamespaceIndex extends ScalarIndexExtension<String> {
+
+    public static final ID<String, Void> NAME = ID.create("mybatis2.mapper.namespace");
+
+    private static final String MAPPER_TAG = "mapper";
+
+    private static final String NAMESPACE_ATTRIBUTE = "namespace";
+
+    @NotNull
+    @Override
+    public ID<String, Void> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Void, FileContent> getIndexer() {
+        return inputData -> {
+            String namespace = getNamespace(inputData.getPsiFile());
+            return null == namespace ? Collections.emptyMap() : Collections.singletonMap(namespace, null);
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(XmlFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @NotNull
+    public static Collection<VirtualFile> getFiles(@NotNull String namespace, @NotNull GlobalSearchScope scope) {
+        return FileBasedIndex.getInstance().getContainingFiles(NAME, namespace, scope);
+    }
+
+    /**
+     * May contain stale namespaces whose files were changed since, check them with {@link #getFiles}
+     */
+    @NotNull
+    public static Collection<String> getAllNamespaces(@NotNull Project project) {
+        return FileBasedIndex.getInstance().getAllKeys(NAME, project);
+    }
+
+    @NotNull
+    public static Map<String, Void> getNamespaces(@NotNull VirtualFile file, @NotNull Project project) {
+        return FileBasedIndex.getInstance().getFileData(NAME, file, project);
+    }
+
+    static String getNamespace(PsiFile file) {
+        if (!(file instanceof XmlFile)) {
+            return null;
+        }
+        XmlTag rootTag = ((XmlFile) file).getRootTag();
+        if (null == rootTag || !MAPPER_TAG.equals(rootTag.getName())) {
+            return null;
+        }
+        String namespace = rootTag.getAttributeValue(NAMESPACE_ATTRIBUTE);
+        return StringUtil.isEmptyOrSpaces(namespace) ? null : namespace.trim();
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.wuzhizhan.mybatis2.index;
+
+import com.google.common.collect.ImmutableSet;
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.Processor;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.intellij.util.xml.DomElement;
+import com.intellij.util.xml.DomManager;
+import com.wuzhizhan.mybatis2.dom.model.IdDomElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the fully qualified signature (namespace.id) of every select/insert/update/delete statement
+ * to the offsets of its tags in the file, so that a mapper method resolves to its statement with a single lookup.
+ * A signature declared twice in one file keeps both offsets.
+ */
+public class MapperStatementIndex extends FileBasedIndexExtension<String, List<Integer>> {
+
+    public static final ID<String, List<Integer>> NAME = ID.create("mybatis2.mapper.statement");
+
+    private static final Set<String> STATEMENT_TAGS = ImmutableSet.of("select", "insert", "update", "delete");
+
+    private static final String ID_ATTRIBUTE = "id";
+
+    @NotNull
+    @Override
+    public ID<String, List<Integer>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<Integer>, FileContent> getIndexer() {
+        return inputData -> {
+            PsiFile file = inputData.getPsiFile();
+            String namespace = MapperNamespaceIndex.getNamespace(file);
+            if (null == namespace) {
+                return Collections.emptyMap();
+            }
+            Map<String, List<Integer>> result = new HashMap<>();
+            for (XmlTag tag : ((XmlFile) file).getRootTag().getSubTags()) {
+                String id = tag.getAttributeValue(ID_ATTRIBUTE);
+                if (STATEMENT_TAGS.contains(tag.getName()) && !StringUtil.isEmptyOrSpaces(id)) {
+                    result.computeIfAbsent(getSignature(namespace, id), key -> new ArrayList<>())
+                            .add(tag.getTextRange().getStartOffset());
+                }
+            }
+            return result;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<Integer>> getValueExternalizer() {
+        return new DataExternalizer<List<Integer>>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<Integer> offsets) throws IOException {
+                DataInputOutputUtil.writeINT(out, offsets.size());
+                for (int offset : offsets) {
+                    DataInputOutputUtil.writeINT(out, offset);
+                }
+            }
+
+            @Override
+            public List<Integer> read(@NotNull DataInput in) throws IOException {
+                int size = DataInputOutputUtil.readINT(in);
+                List<Integer> offsets = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    offsets.add(DataInputOutputUtil.readINT(in));
+                }
+                return offsets;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(XmlFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @NotNull
+    public static String getSignature(@NotNull String namespace, @NotNull String id) {
+        return namespace + "." + id.trim();
+    }
+
+    /**
+     * Feeds the statements with the given signature to the processor, touching only the files containing them
+     *
+     * @return false if the processor stopped the iteration
+     */
+    public static boolean processStatements(@NotNull Project project,
+                                            @NotNull String signature,
+                                            @NotNull GlobalSearchScope scope,
+                                            @NotNull Processor<? super IdDomElement> processor) {
+        PsiManager psiManager = PsiManager.getInstance(project);
+        DomManager domManager = DomManager.getDomManager(project);
+        return FileBasedIndex.getInstance().processValues(NAME, signature, null, (file, offsets) -> {
+            for (int offset : offsets) {
+                IdDomElement statement = findStatement(psiManager, domManager, file, offset);
+                if (null != statement && !processor.process(statement)) {
+                    return false;
+                }
+            }
+            return true;
+        }, scope);
+    }
+
+    @Nullable
+    private static IdDomElement findStatement(PsiManager psiManager, DomManager domManager, VirtualFile file, int offset) {
+        PsiFile psiFile = psiManager.findFile(file);
+        if (!(psiFile instanceof XmlFile)) {
+            return null;
+        }
+        XmlTag tag = PsiTreeUtil.getParentOfType(psiFile.findElementAt(offset), XmlTag.class, false);
+        DomElement domElement = null == tag ? null : domManager.getDomElement(tag);
+        return domElement instanceof IdDomElement ? (IdDomElement) domElement : null;
+    }
+
+}
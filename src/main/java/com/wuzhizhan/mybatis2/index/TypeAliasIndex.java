@@ -0,0 +1,131 @@
+package com.wuzhizhan.mybatis2.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the alias of every source class annotated with {@code @Alias("...")} to the qualified name of the class.
+ * <p>
+ * The annotation is matched by name only, as nothing can be resolved while indexing, so callers should check
+ * the class of a hit really carries {@code org.apache.ibatis.type.Alias}.
+ */
+public class TypeAliasIndex extends FileBasedIndexExtension<String, String> {
+
+    public static final ID<String, String> NAME = ID.create("mybatis2.type.alias");
+
+    private static final String ALIAS_SHORT_NAME = "Alias";
+
+    private static final String ALIAS_QUALIFIED_NAME = "org.apache.ibatis.type.Alias";
+
+    @NotNull
+    @Override
+    public ID<String, String> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, String, FileContent> getIndexer() {
+        return inputData -> {
+            if (!StringUtil.contains(inputData.getContentAsText(), "@" + ALIAS_SHORT_NAME)) {
+                return Collections.emptyMap();
+            }
+            PsiFile file = inputData.getPsiFile();
+            if (!(file instanceof PsiJavaFile)) {
+                return Collections.emptyMap();
+            }
+            Map<String, String> result = new HashMap<>();
+            collectAliases(((PsiJavaFile) file).getClasses(), result);
+            return result;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * May contain stale aliases whose files were changed since, check them with {@link #getClassNames}
+     */
+    @NotNull
+    public static Collection<String> getAllAliases(@NotNull Project project) {
+        return FileBasedIndex.getInstance().getAllKeys(NAME, project);
+    }
+
+    @NotNull
+    public static List<String> getClassNames(@NotNull String alias, @NotNull GlobalSearchScope scope) {
+        return FileBasedIndex.getInstance().getValues(NAME, alias, scope);
+    }
+
+    private static void collectAliases(PsiClass[] classes, Map<String, String> result) {
+        for (PsiClass clazz : classes) {
+            String alias = getAlias(clazz);
+            String qualifiedName = clazz.getQualifiedName();
+            if (null != alias && null != qualifiedName) {
+                result.putIfAbsent(alias, qualifiedName);
+            }
+            collectAliases(clazz.getInnerClasses(), result);
+        }
+    }
+
+    private static String getAlias(PsiClass clazz) {
+        PsiModifierList modifierList = clazz.getModifierList();
+        if (null == modifierList) {
+            return null;
+        }
+        for (PsiAnnotation annotation : modifierList.getAnnotations()) {
+            PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+            if (null == reference) {
+                continue;
+            }
+            String name = reference.getText();
+            if (ALIAS_SHORT_NAME.equals(name) || ALIAS_QUALIFIED_NAME.equals(name)) {
+                PsiAnnotationMemberValue value = annotation.findDeclaredAttributeValue("value");
+                if (value instanceof PsiLiteralExpression && ((PsiLiteralExpression) value).getValue() instanceof String) {
+                    String alias = (String) ((PsiLiteralExpression) value).getValue();
+                    return StringUtil.isEmptyOrSpaces(alias) ? null : alias;
+                }
+            }
+        }
+        return null;
+    }
+
+}
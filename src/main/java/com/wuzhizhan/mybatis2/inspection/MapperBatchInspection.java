@@ -0,0 +1,193 @@
+package com.wuzhizhan.mybatis2.inspection;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.codeInspection.CommonProblemDescriptor;
+import com.intellij.codeInspection.GlobalInspectionContext;
+import com.intellij.codeInspection.GlobalInspectionTool;
+import com.intellij.codeInspection.GlobalInspectionUtil;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemDescriptionsProcessor;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.reference.RefEntity;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.wuzhizhan.mybatis2.index.MapperNamespaceIndex;
+import com.wuzhizhan.mybatis2.service.MybatisModel;
+import com.wuzhizhan.mybatis2.service.MybatisModelService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch mode of {@link MapperMethodInspection} and {@link MapperXmlInspection} for offline runs.
+ * <p>
+ * Mapper interfaces and xml files are sharded by module and the shards are checked concurrently, each in its own
+ * read action, against the cached model of its module, built once by the shard and shared by every check in it.
+ * Disable the two local inspections in the profile using this one, or their problems are reported twice.
+ */
+public class MapperBatchInspection extends GlobalInspectionTool {
+
+    public boolean reportTimings = false;
+
+    @Override
+    public void runInspection(@NotNull AnalysisScope scope,
+                              @NotNull InspectionManager manager,
+                              @NotNull GlobalInspectionContext globalContext,
+                              @NotNull ProblemDescriptionsProcessor processor) {
+        Project project = manager.getProject();
+        List<Shard> shards = ReadAction.compute(() -> collectShards(project, scope));
+        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        MapperMethodInspection methodInspection = new MapperMethodInspection();
+        MapperXmlInspection xmlInspection = new MapperXmlInspection();
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(shards,
+                null == indicator ? new EmptyProgressIndicator() : indicator,
+                shard -> {
+                    long start = System.currentTimeMillis();
+                    ReadAction.run(() -> {
+                        shard.model.getMappers();
+                        shard.check(methodInspection, xmlInspection, manager, globalContext, processor);
+                    });
+                    if (reportTimings) {
+                        reportTiming(shard, System.currentTimeMillis() - start, manager, globalContext, processor);
+                    }
+                    return true;
+                });
+    }
+
+    @Override
+    public boolean isReadActionNeeded() {
+        return false;
+    }
+
+    @Override
+    public boolean isGraphNeeded() {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public OptPane getOptionsPane() {
+        return OptPane.pane(OptPane.checkbox("reportTimings", "Report check time of every module"));
+    }
+
+    /**
+     * One shard per module, holding the mapper files and interfaces of its content, grouped in a single pass over the
+     * namespaces of the project. Each shard is checked against the model of its module, which is the model the
+     * inspections resolve to for these files.
+     */
+    private static List<Shard> collectShards(Project project, AnalysisScope scope) {
+        Map<Module, Shard> shards = new LinkedHashMap<>();
+        MybatisModelService modelService = MybatisModelService.getInstance(project);
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        GlobalSearchScope projectScope = GlobalSearchScope.projectScope(project);
+        for (String namespace : MapperNamespaceIndex.getAllNamespaces(project)) {
+            ProgressManager.checkCanceled();
+            Collection<VirtualFile> files = MapperNamespaceIndex.getFiles(namespace, projectScope);
+            if (files.isEmpty()) {
+                continue;
+            }
+            for (VirtualFile file : files) {
+                Module module = fileIndex.getModuleForFile(file);
+                if (null != module && scope.contains(file)) {
+                    shards.computeIfAbsent(module, key -> new Shard(key, modelService.getModel(key))).files.add(file);
+                }
+            }
+            for (PsiClass clazz : javaPsiFacade.findClasses(namespace, projectScope)) {
+                PsiFile classFile = clazz.getContainingFile();
+                VirtualFile virtualFile = null == classFile ? null : classFile.getVirtualFile();
+                Module module = null == virtualFile ? null : fileIndex.getModuleForFile(virtualFile);
+                if (null != module && scope.contains(virtualFile)) {
+                    shards.computeIfAbsent(module, key -> new Shard(key, modelService.getModel(key))).classes.add(clazz);
+                }
+            }
+        }
+        return new ArrayList<>(shards.values());
+    }
+
+    private static void reportTiming(Shard shard,
+                                     long millis,
+                                     InspectionManager manager,
+                                     GlobalInspectionContext globalContext,
+                                     ProblemDescriptionsProcessor processor) {
+        RefEntity refEntity = globalContext.getRefManager().getRefModule(shard.module);
+        if (null == refEntity) {
+            return;
+        }
+        String message = "Checked " + shard.classes.size() + " mapper interfaces and " + shard.files.size()
+                + " mapper files of module " + shard.module.getName() + " in " + millis + " ms";
+        CommonProblemDescriptor descriptor = manager.createProblemDescriptor(message);
+        synchronized (processor) {
+            processor.addProblemElement(refEntity, descriptor);
+        }
+    }
+
+    /**
+     * The mapper interfaces and xml files of one module
+     */
+    private static final class Shard {
+
+        private final Module module;
+
+        private final MybatisModel model;
+
+        private final List<PsiClass> classes = new ArrayList<>();
+
+        private final List<VirtualFile> files = new ArrayList<>();
+
+        private Shard(@NotNull Module module, @NotNull MybatisModel model) {
+            this.module = module;
+            this.model = model;
+        }
+
+        private void check(MapperMethodInspection methodInspection,
+                           MapperXmlInspection xmlInspection,
+                           InspectionManager manager,
+                           GlobalInspectionContext globalContext,
+                           ProblemDescriptionsProcessor processor) {
+            for (PsiClass clazz : classes) {
+                ProgressManager.checkCanceled();
+                if (clazz.isValid()) {
+                    report(clazz, methodInspection.checkClass(clazz, manager, false), globalContext, processor);
+                }
+            }
+            PsiManager psiManager = PsiManager.getInstance(manager.getProject());
+            for (VirtualFile file : files) {
+                ProgressManager.checkCanceled();
+                PsiFile psiFile = file.isValid() ? psiManager.findFile(file) : null;
+                if (null != psiFile) {
+                    report(psiFile, xmlInspection.checkFile(psiFile, manager, false), globalContext, processor);
+                }
+            }
+        }
+
+        private void report(PsiElement element,
+                            @Nullable ProblemDescriptor[] descriptors,
+                            GlobalInspectionContext globalContext,
+                            ProblemDescriptionsProcessor processor) {
+            if (null == descriptors || descriptors.length == 0) {
+                return;
+            }
+            RefEntity refEntity = GlobalInspectionUtil.retrieveRefElement(element, globalContext);
+            synchronized (processor) {
+                processor.addProblemElement(refEntity, descriptors);
+            }
+        }
+    }
+
+}
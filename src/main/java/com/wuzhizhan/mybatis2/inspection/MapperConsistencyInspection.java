@@ -0,0 +1,152 @@
+package com.wuzhizhan.mybatis2.inspection;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.codeInspection.GlobalInspectionContext;
+import com.intellij.codeInspection.GlobalInspectionTool;
+import com.intellij.codeInspection.GlobalInspectionUtil;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemDescriptionsProcessor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.reference.RefElement;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.wuzhizhan.mybatis2.annotation.Annotation;
+import com.wuzhizhan.mybatis2.index.MapperNamespaceIndex;
+import com.wuzhizhan.mybatis2.index.MapperStatementIndex;
+import com.wuzhizhan.mybatis2.util.JavaUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Project wide consistency of mapper xml and interfaces, computed in one pass over the namespace and statement indexes:
+ * <ul>
+ * <li>statements whose id matches no method of the namespace interface</li>
+ * <li>interface methods without statement nor statement annotation</li>
+ * <li>ids declared several times in the xml files of the same namespace, within one file or across files</li>
+ * </ul>
+ * Psi is only loaded for the namespace interfaces and for the tags that are reported.
+ */
+public class MapperConsistencyInspection extends GlobalInspectionTool {
+
+    @Override
+    public void runInspection(@NotNull AnalysisScope scope,
+                              @NotNull InspectionManager manager,
+                              @NotNull GlobalInspectionContext globalContext,
+                              @NotNull ProblemDescriptionsProcessor processor) {
+        Project project = manager.getProject();
+        GlobalSearchScope searchScope = GlobalSearchScope.allScope(project);
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        PsiManager psiManager = PsiManager.getInstance(project);
+        for (String namespace : MapperNamespaceIndex.getAllNamespaces(project)) {
+            ProgressManager.checkCanceled();
+            ListMultimap<String, StatementLocation> statements = ArrayListMultimap.create();
+            for (VirtualFile file : MapperNamespaceIndex.getFiles(namespace, searchScope)) {
+                Map<String, List<Integer>> offsets = index.getFileData(MapperStatementIndex.NAME, file, project);
+                for (Map.Entry<String, List<Integer>> entry : offsets.entrySet()) {
+                    if (entry.getKey().startsWith(namespace + ".")) {
+                        for (int offset : entry.getValue()) {
+                            statements.put(entry.getKey().substring(namespace.length() + 1), new StatementLocation(file, offset));
+                        }
+                    }
+                }
+            }
+            PsiClass clazz = javaPsiFacade.findClass(namespace, searchScope);
+            Set<String> methodNames = new HashSet<>();
+            if (null != clazz && clazz.isInterface()) {
+                for (PsiMethod method : clazz.getAllMethods()) {
+                    methodNames.add(method.getName());
+                }
+                checkUnmappedMethods(clazz, statements, scope, manager, globalContext, processor);
+            }
+            for (String id : statements.keySet()) {
+                List<StatementLocation> locations = statements.get(id);
+                for (StatementLocation location : locations) {
+                    if (!scope.contains(location.file)) {
+                        continue;
+                    }
+                    if (locations.size() > 1) {
+                        report(location.findTag(psiManager), "Statement id \"" + id + "\" is declared " + locations.size()
+                                + " times in the mapper files of namespace " + namespace, manager, globalContext, processor);
+                    }
+                    if (null != clazz && clazz.isInterface() && !methodNames.contains(id)) {
+                        report(location.findTag(psiManager), "Statement id \"" + id + "\" has no method in " + namespace,
+                                manager, globalContext, processor);
+                    }
+                }
+            }
+        }
+    }
+
+    private void checkUnmappedMethods(@NotNull PsiClass clazz,
+                                      @NotNull ListMultimap<String, StatementLocation> statements,
+                                      @NotNull AnalysisScope scope,
+                                      @NotNull InspectionManager manager,
+                                      @NotNull GlobalInspectionContext globalContext,
+                                      @NotNull ProblemDescriptionsProcessor processor) {
+        PsiFile file = clazz.getContainingFile();
+        if (null == file || null == file.getVirtualFile() || !scope.contains(file.getVirtualFile())) {
+            return;
+        }
+        for (PsiMethod method : clazz.getMethods()) {
+            if (statements.containsKey(method.getName())
+                    || method.hasModifierProperty(PsiModifier.DEFAULT)
+                    || method.hasModifierProperty(PsiModifier.STATIC)
+                    || JavaUtils.isAnyAnnotationPresent(method, Annotation.STATEMENT_SYMMETRIES)) {
+                continue;
+            }
+            report(method.getNameIdentifier(), "Method \"" + method.getName() + "\" has no statement in mapper XML",
+                    manager, globalContext, processor);
+        }
+    }
+
+    private void report(@Nullable PsiElement element,
+                        @NotNull String message,
+                        @NotNull InspectionManager manager,
+                        @NotNull GlobalInspectionContext globalContext,
+                        @NotNull ProblemDescriptionsProcessor processor) {
+        if (null == element) {
+            return;
+        }
+        RefElement refElement = GlobalInspectionUtil.retrieveRefElement(element, globalContext);
+        processor.addProblemElement(refElement, manager.createProblemDescriptor(element, message, false, null,
+                ProblemHighlightType.GENERIC_ERROR_OR_WARNING));
+    }
+
+    @Override
+    public boolean isGraphNeeded() {
+        return false;
+    }
+
+    private static final class StatementLocation {
+
+        private final VirtualFile file;
+
+        private final int offset;
+
+        private StatementLocation(VirtualFile file, int offset) {
+            this.file = file;
+            this.offset = offset;
+        }
+
+        @Nullable
+        private XmlTag findTag(@NotNull PsiManager psiManager) {
+            PsiFile psiFile = file.isValid() ? psiManager.findFile(file) : null;
+            return null == psiFile ? null : PsiTreeUtil.getParentOfType(psiFile.findElementAt(offset), XmlTag.class, false);
+        }
+    }
+
+}
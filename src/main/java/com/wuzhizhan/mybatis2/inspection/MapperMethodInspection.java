@@ -1,15 +1,18 @@
 package com.wuzhizhan.mybatis2.inspection;
 
+import com.google.common.collect.ListMultimap;
 import com.intellij.codeInspection.InspectionManager;
 import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemDescriptor;
 import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiIdentifier;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiModifier;
 import com.intellij.util.xml.DomElement;
 import com.wuzhizhan.mybatis2.annotation.Annotation;
+import com.wuzhizhan.mybatis2.dom.model.IdDomElement;
 import com.wuzhizhan.mybatis2.dom.model.Select;
 import com.wuzhizhan.mybatis2.generate.StatementGenerator;
 import com.wuzhizhan.mybatis2.locator.MapperLocator;
@@ -23,34 +26,47 @@ import java.util.List;
 import java.util.Optional;
 
 /**
+ * Checks a whole mapper interface at once: its statements are looked up a single time
+ * and every method is checked against the resulting id to statement map.
+ *
  * @author yanglin
  */
 public class MapperMethodInspection extends MapperInspection {
     @Nullable
     @Override
-    public ProblemDescriptor[] checkMethod(
-            @NotNull final PsiMethod method,
+    public ProblemDescriptor[] checkClass(
+            @NotNull final PsiClass aClass,
             @NotNull final InspectionManager manager,
             final boolean isOnTheFly) {
-        if (!MapperLocator.getInstance(method.getProject()).process(method) ||
-                JavaUtils.isAnyAnnotationPresent(method, Annotation.STATEMENT_SYMMETRIES)) {
+        if (!MapperLocator.getInstance(aClass.getProject()).process(aClass)) {
             return EMPTY_ARRAY;
         }
-
-        final List<ProblemDescriptor> problems = createProblemDescriptors(method, manager, isOnTheFly);
+        final ListMultimap<String, IdDomElement> statements =
+                JavaService.getInstance(aClass.getProject()).getStatementsById(aClass);
+        final List<ProblemDescriptor> problems = new ArrayList<>();
+        for (PsiMethod method : aClass.getMethods()) {
+            ProgressManager.checkCanceled();
+            if (JavaUtils.isAnyAnnotationPresent(method, Annotation.STATEMENT_SYMMETRIES)) {
+                continue;
+            }
+            final List<IdDomElement> found = statements.get(method.getName());
+            final Optional<DomElement> statement = found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+            problems.addAll(createProblemDescriptors(method, statement, manager, isOnTheFly));
+        }
         return problems.toArray(new ProblemDescriptor[0]);
     }
 
     private List<ProblemDescriptor> createProblemDescriptors(
             final PsiMethod method,
+            final Optional<DomElement> statement,
             final InspectionManager manager,
             final boolean isOnTheFly) {
         final List<ProblemDescriptor> problems = new ArrayList<>(2);
-        Optional<ProblemDescriptor> optionalProblem = checkStatementExists(method, manager, isOnTheFly);
+        Optional<ProblemDescriptor> optionalProblem = checkStatementExists(method, statement, manager, isOnTheFly);
 
         optionalProblem.ifPresent(problems::add);
 
-        optionalProblem = checkResultType(method, manager, isOnTheFly);
+        optionalProblem = checkResultType(method, statement, manager, isOnTheFly);
 
         optionalProblem.ifPresent(problems::add);
 
@@ -59,12 +75,9 @@ public class MapperMethodInspection extends MapperInspection {
 
     private Optional<ProblemDescriptor> checkResultType(
             final PsiMethod method,
+            final Optional<DomElement> optionalDomElement,
             final InspectionManager manager,
             final boolean isOnTheFly) {
-        final Optional<DomElement> optionalDomElement =
-                JavaService.getInstance(method.getProject())
-                        .findStatement(method);
-
         if (!optionalDomElement.isPresent()) {
             return Optional.empty();
         }
@@ -116,6 +129,7 @@ public class MapperMethodInspection extends MapperInspection {
 
     private Optional<ProblemDescriptor> checkStatementExists(
             final PsiMethod method,
+            final Optional<DomElement> statement,
             final InspectionManager manager,
             final boolean isOnTheFly) {
         final PsiIdentifier methodName = method.getNameIdentifier();
@@ -124,7 +138,7 @@ public class MapperMethodInspection extends MapperInspection {
             return Optional.empty();
         }
 
-        if (!JavaService.getInstance(method.getProject()).findStatement(method).isPresent() && null != methodName) {
+        if (!statement.isPresent() && null != methodName) {
             return Optional.of(manager.createProblemDescriptor(
                     methodName,
                     "Statement with id=\"#ref\" not defined in mapper XML",
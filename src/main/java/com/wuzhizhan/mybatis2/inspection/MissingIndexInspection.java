@@ -0,0 +1,244 @@
+package com.wuzhizhan.mybatis2.inspection;
+
+import com.google.common.collect.ImmutableSet;
+import com.intellij.database.psi.DbPsiFacade;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.xml.XmlTagChild;
+import com.intellij.psi.xml.XmlText;
+import com.intellij.util.xml.DomElement;
+import com.intellij.util.xml.DomFileElement;
+import com.intellij.util.xml.highlighting.DomElementAnnotationHolder;
+import com.intellij.util.xml.highlighting.DomElementsInspection;
+import com.wuzhizhan.mybatis2.dom.model.Mapper;
+import com.wuzhizhan.mybatis2.dom.model.Sql;
+import com.wuzhizhan.mybatis2.service.MybatisModel;
+import com.wuzhizhan.mybatis2.service.MybatisModelService;
+import com.wuzhizhan.mybatis2.util.DbToolsUtils;
+import com.wuzhizhan.mybatis2.util.DbToolsUtils.TableIndex;
+import com.wuzhizhan.mybatis2.util.MapperUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reports the select, update and delete statements filtering a table only on columns that start no index of it,
+ * according to the data sources configured in the IDE. The sql is read from the text of the statement, with its
+ * dynamic tags and included fragments. Only the columns of WHERE and JOIN ... ON predicates decide whether a table is
+ * filtered through an index; the columns of ORDER BY are reported on their own when none of them leads an index.
+ */
+public class MissingIndexInspection extends DomElementsInspection<Mapper> {
+
+    private static final int MAX_INCLUDE_DEPTH = 8;
+
+    private static final Pattern TABLE_PATTERN = Pattern.compile(
+            "\\b(?:FROM|JOIN|UPDATE)\\s+([\\w`\".]+)(?:\\s+(?:AS\\s+)?([\\w`\"]+))?", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern CLAUSE_PATTERN = Pattern.compile(
+            "\\b(WHERE|ON|ORDER\\s+BY|GROUP\\s+BY|HAVING|LIMIT|OFFSET|UNION|SET|VALUES|FROM|JOIN|LEFT|RIGHT|INNER|OUTER|CROSS|FOR)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern PREDICATE_PATTERN = Pattern.compile(
+            "(?:([\\w`\"]+)\\.)?([\\w`\"]+)\\s*(?:=|<>|!=|<=|>=|<|>|\\bNOT\\s+IN\\b|\\bIN\\b|\\bNOT\\s+LIKE\\b|\\bLIKE\\b|\\bBETWEEN\\b|\\bIS\\b)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern COLUMN_PATTERN = Pattern.compile("(?:([\\w`\"]+)\\.)?([\\w`\"]+)");
+
+    private static final Set<String> KEYWORDS = ImmutableSet.of("and", "or", "not", "where", "on", "set", "as", "null",
+            "is", "in", "like", "between", "exists", "case", "when", "then", "else", "end", "asc", "desc", "select",
+            "from", "join", "left", "right", "inner", "outer", "cross", "order", "group", "by", "having", "limit",
+            "offset", "union", "values", "for", "update", "delete", "true", "false");
+
+    public MissingIndexInspection() {
+        super(Mapper.class);
+    }
+
+    @Override
+    public void checkFileElement(DomFileElement<Mapper> domFileElement, DomElementAnnotationHolder holder) {
+        Project project = domFileElement.getFile().getProject();
+        if (DbPsiFacade.getInstance(project).getDataSources().isEmpty()) {
+            return;
+        }
+        Mapper mapper = domFileElement.getRootElement();
+        String namespace = MapperUtils.getNamespace(mapper);
+        MybatisModel model = MybatisModelService.getInstance(project).getModel(domFileElement.getFile());
+        List<DomElement> statements = new ArrayList<>(mapper.getSelects());
+        statements.addAll(mapper.getUpdates());
+        statements.addAll(mapper.getDeletes());
+        for (DomElement statement : statements) {
+            XmlTag tag = statement.getXmlTag();
+            if (null == tag) {
+                continue;
+            }
+            StringBuilder sql = new StringBuilder();
+            appendSql(tag, sql, model, namespace, 0);
+            checkStatement(project, sql.toString(), statement, holder);
+        }
+    }
+
+    private void checkStatement(Project project, String sql, DomElement statement, DomElementAnnotationHolder holder) {
+        Map<String, TableIndex> tables = new LinkedHashMap<>();
+        Matcher tableMatcher = TABLE_PATTERN.matcher(sql);
+        while (tableMatcher.find()) {
+            String tableName = StringUtil.getShortName(unquote(tableMatcher.group(1)));
+            TableIndex table = DbToolsUtils.findTableIndex(project, tableName);
+            if (null == table) {
+                continue;
+            }
+            tables.put(tableName.toLowerCase(Locale.ROOT), table);
+            String alias = null == tableMatcher.group(2) ? null : unquote(tableMatcher.group(2)).toLowerCase(Locale.ROOT);
+            if (null != alias && !KEYWORDS.contains(alias)) {
+                tables.put(alias, table);
+            }
+        }
+        if (tables.isEmpty()) {
+            return;
+        }
+        Map<TableIndex, Set<String>> columns = new LinkedHashMap<>();
+        Set<TableIndex> indexed = new LinkedHashSet<>();
+        Map<TableIndex, Set<String>> orderColumns = new LinkedHashMap<>();
+        Set<TableIndex> orderIndexed = new LinkedHashSet<>();
+        Matcher clauseMatcher = CLAUSE_PATTERN.matcher(sql);
+        String clause = null;
+        int start = 0;
+        while (true) {
+            boolean found = clauseMatcher.find();
+            String section = sql.substring(start, found ? clauseMatcher.start() : sql.length());
+            if (null != clause && clause.startsWith("ORDER")) {
+                collectColumns(clause, section, tables, orderColumns, orderIndexed);
+            } else if (null != clause) {
+                collectColumns(clause, section, tables, columns, indexed);
+            }
+            if (!found) {
+                break;
+            }
+            clause = clauseMatcher.group(1).toUpperCase(Locale.ROOT);
+            start = clauseMatcher.end();
+        }
+        for (Map.Entry<TableIndex, Set<String>> entry : columns.entrySet()) {
+            if (!indexed.contains(entry.getKey())) {
+                holder.createProblem(statement, HighlightSeverity.WEAK_WARNING, "Table " + entry.getKey().getName()
+                        + " is filtered on " + String.join(", ", entry.getValue())
+                        + ", none of which is the leading column of an index: the statement scans the whole table");
+            }
+        }
+        for (Map.Entry<TableIndex, Set<String>> entry : orderColumns.entrySet()) {
+            if (!orderIndexed.contains(entry.getKey()) && !columns.containsKey(entry.getKey())) {
+                holder.createProblem(statement, HighlightSeverity.WEAK_WARNING, "Table " + entry.getKey().getName()
+                        + " is sorted on " + String.join(", ", entry.getValue())
+                        + ", none of which is the leading column of an index: every row is read and sorted");
+            }
+        }
+    }
+
+    private void collectColumns(String clause,
+                                String section,
+                                Map<String, TableIndex> tables,
+                                Map<TableIndex, Set<String>> columns,
+                                Set<TableIndex> indexed) {
+        Matcher matcher;
+        if ("WHERE".equals(clause)) {
+            matcher = PREDICATE_PATTERN.matcher(section);
+        } else if ("ON".equals(clause) || clause.startsWith("ORDER")) {
+            matcher = COLUMN_PATTERN.matcher(section);
+        } else {
+            return;
+        }
+        while (matcher.find()) {
+            String qualifier = matcher.group(1);
+            String column = unquote(matcher.group(2));
+            if (KEYWORDS.contains(column.toLowerCase(Locale.ROOT)) || Character.isDigit(column.charAt(0))
+                    || ("ON".equals(clause) && null == qualifier)) {
+                continue;
+            }
+            TableIndex table = findTable(null == qualifier ? null : unquote(qualifier), column, tables);
+            if (null == table) {
+                continue;
+            }
+            columns.computeIfAbsent(table, key -> new LinkedHashSet<>()).add(column);
+            if (table.isLeadingColumn(column)) {
+                indexed.add(table);
+            }
+        }
+    }
+
+    /**
+     * The table of the qualifier, or else the only table of the statement having the column
+     */
+    @Nullable
+    private TableIndex findTable(@Nullable String qualifier, String column, Map<String, TableIndex> tables) {
+        if (null != qualifier) {
+            TableIndex table = tables.get(qualifier.toLowerCase(Locale.ROOT));
+            return null != table && table.hasColumn(column) ? table : null;
+        }
+        TableIndex result = null;
+        for (TableIndex table : new LinkedHashSet<>(tables.values())) {
+            if (table.hasColumn(column)) {
+                if (null != result) {
+                    return null;
+                }
+                result = table;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The sql text of the tag as mybatis would render it with every dynamic branch taken
+     */
+    private void appendSql(@NotNull XmlTag tag, StringBuilder sql, MybatisModel model, String namespace, int depth) {
+        for (XmlTagChild child : tag.getValue().getChildren()) {
+            if (child instanceof XmlText) {
+                sql.append(((XmlText) child).getValue()).append(' ');
+            } else if (child instanceof XmlTag) {
+                XmlTag subTag = (XmlTag) child;
+                String name = subTag.getName();
+                if ("selectKey".equals(name) || "bind".equals(name)) {
+                    continue;
+                }
+                if ("include".equals(name)) {
+                    appendInclude(subTag, sql, model, namespace, depth);
+                    continue;
+                }
+                if ("where".equals(name) || "set".equals(name)) {
+                    sql.append(' ').append(name.toUpperCase(Locale.ROOT)).append(' ');
+                }
+                sql.append(' ').append(StringUtil.notNullize(subTag.getAttributeValue("prefix")))
+                        .append(' ').append(StringUtil.notNullize(subTag.getAttributeValue("open"))).append(' ');
+                appendSql(subTag, sql, model, namespace, depth);
+                sql.append(' ').append(StringUtil.notNullize(subTag.getAttributeValue("close"))).append(' ');
+            }
+        }
+    }
+
+    private void appendInclude(XmlTag include, StringBuilder sql, MybatisModel model, String namespace, int depth) {
+        String refid = include.getAttributeValue("refid");
+        if (null == refid || depth >= MAX_INCLUDE_DEPTH) {
+            return;
+        }
+        for (Sql fragment : model.getSqls().find(namespace, refid.trim())) {
+            XmlTag fragmentTag = fragment.getXmlTag();
+            if (null != fragmentTag) {
+                appendSql(fragmentTag, sql, model, MapperUtils.getNamespace(fragment), depth + 1);
+                return;
+            }
+        }
+    }
+
+    private static String unquote(String identifier) {
+        return identifier.replace("`", "").replace("\"", "");
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.wuzhizhan.mybatis2.inspection;
+
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.psi.CommonClassNames;
+import com.intellij.psi.PsiArrayType;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.util.xml.DomFileElement;
+import com.intellij.util.xml.highlighting.DomElementAnnotationHolder;
+import com.intellij.util.xml.highlighting.DomElementsInspection;
+import com.wuzhizhan.mybatis2.dom.model.*;
+import com.wuzhizhan.mybatis2.service.MybatisModel;
+import com.wuzhizhan.mybatis2.service.MybatisModelService;
+import com.wuzhizhan.mybatis2.util.JavaUtils;
+import com.wuzhizhan.mybatis2.util.MapperUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reports list queries whose resultMap, directly or through nested and extended resultMaps,
+ * loads an association or collection by a nested select: mybatis then runs one more query per row.
+ * No fix is offered, replacing the nested select needs a join in the sql of the query which only its author can write.
+ */
+public class NestedSelectInspection extends DomElementsInspection<Mapper> {
+
+    private static final String CURSOR_CLASS = "org.apache.ibatis.cursor.Cursor";
+
+    public NestedSelectInspection() {
+        super(Mapper.class);
+    }
+
+    @Override
+    public void checkFileElement(DomFileElement<Mapper> domFileElement, DomElementAnnotationHolder holder) {
+        Mapper mapper = domFileElement.getRootElement();
+        String namespace = MapperUtils.getNamespace(mapper);
+        MybatisModel model = MybatisModelService.getInstance(domFileElement.getFile().getProject()).getModel(domFileElement.getFile());
+        for (Select select : mapper.getSelects()) {
+            String resultMap = select.getResultMap().getStringValue();
+            if (StringUtils.isBlank(resultMap)) {
+                continue;
+            }
+            List<NestedQueryGroup> nestedSelects = new ArrayList<>();
+            collectNestedSelects(model, namespace, resultMap.trim(), nestedSelects, new HashSet<>());
+            if (nestedSelects.isEmpty()) {
+                continue;
+            }
+            Optional<PsiMethod> method = JavaUtils.findMethod(domFileElement.getFile().getProject(), select);
+            if (!method.isPresent() || !returnsMany(method.get())) {
+                continue;
+            }
+            for (NestedQueryGroup nested : nestedSelects) {
+                String property = nested instanceof PropertyGroup ? ((PropertyGroup) nested).getProperty().getStringValue() : null;
+                holder.createProblem(select.getResultMap(), HighlightSeverity.WEAK_WARNING,
+                        "Nested select \"" + nested.getSelect().getStringValue() + "\""
+                                + (null == property ? "" : " of property \"" + property + "\"")
+                                + " runs once per row of this list query (N+1),"
+                                + " consider joining it in this query and mapping it with a nested resultMap");
+            }
+        }
+    }
+
+    private void collectNestedSelects(MybatisModel model, String contextNamespace, String resultMapId,
+                                      List<NestedQueryGroup> result, Set<String> visited) {
+        for (ResultMap resultMap : model.getResultMaps().find(contextNamespace, resultMapId)) {
+            String namespace = MapperUtils.getNamespace(resultMap);
+            if (!visited.add(MapperUtils.getIdSignature(resultMap))) {
+                continue;
+            }
+            collectNestedSelects(model, namespace, resultMap, result, visited);
+            String parent = resultMap.getExtends().getStringValue();
+            if (StringUtils.isNotBlank(parent)) {
+                collectNestedSelects(model, namespace, parent.trim(), result, visited);
+            }
+        }
+    }
+
+    private void collectNestedSelects(MybatisModel model, String namespace, GroupFour group,
+                                      List<NestedQueryGroup> result, Set<String> visited) {
+        List<GroupFour> children = new ArrayList<>(group.getAssociations());
+        children.addAll(group.getCollections());
+        for (GroupFour child : children) {
+            NestedQueryGroup nested = (NestedQueryGroup) child;
+            String resultMap = ((ResultMapGroup) child).getResultMap().getStringValue();
+            if (StringUtils.isNotBlank(nested.getSelect().getStringValue())) {
+                result.add(nested);
+            } else if (StringUtils.isNotBlank(resultMap)) {
+                collectNestedSelects(model, namespace, resultMap.trim(), result, visited);
+            } else {
+                collectNestedSelects(model, namespace, child, result, visited);
+            }
+        }
+    }
+
+    private boolean returnsMany(PsiMethod method) {
+        PsiType returnType = method.getReturnType();
+        return returnType instanceof PsiArrayType
+                || InheritanceUtil.isInheritor(returnType, CommonClassNames.JAVA_UTIL_COLLECTION)
+                || InheritanceUtil.isInheritor(returnType, CURSOR_CLASS);
+    }
+
+}
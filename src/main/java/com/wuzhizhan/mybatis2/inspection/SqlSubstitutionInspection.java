@@ -0,0 +1,114 @@
+package com.wuzhizhan.mybatis2.inspection;
+
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.XmlElementVisitor;
+import com.intellij.psi.xml.XmlText;
+import com.wuzhizhan.mybatis2.util.DomUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reports the ${} substitutions of mapper sql: each value renders a different sql text, which defeats the statement
+ * caches of the driver and the prepared statement and plan caches of the server.
+ * <p>
+ * A substitution standing for a value (after a comparison, LIKE, IN, LIMIT, OFFSET, VALUES or inside single quotes)
+ * can be bound with #{} instead, except in an IN list where one #{} would bind the whole list as a single string: its
+ * items are to be bound with a foreach. One standing for an identifier (table, column, ORDER BY, inside double quotes
+ * ...) cannot, it is only reported as a weak warning since its values should come from a fixed set.
+ */
+public class SqlSubstitutionInspection extends LocalInspectionTool {
+
+    private static final Pattern SUBSTITUTION_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+
+    private static final Pattern VALUE_OPERATOR_PATTERN = Pattern.compile(
+            "(?:[=<>]|&lt;|&gt;|\\b(?:LIKE|LIMIT|OFFSET|THEN|ELSE)|\\bBETWEEN\\s+\\S+\\s+AND)$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern IN_LIST_PATTERN = Pattern.compile("\\bIN\\s*\\(?$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern KEYWORD_PATTERN = Pattern.compile(
+            "\\b(SELECT|FROM|JOIN|WHERE|AND|OR|ON|BY|LIMIT|OFFSET|SET|VALUES|IN|INTO|UPDATE|TABLE|HAVING)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    @NotNull
+    @Override
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (!DomUtils.isMybatisFile(holder.getFile())) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+        return new XmlElementVisitor() {
+            @Override
+            public void visitXmlText(XmlText text) {
+                checkText(text, holder);
+            }
+        };
+    }
+
+    private void checkText(XmlText xmlText, ProblemsHolder holder) {
+        String text = xmlText.getText();
+        Matcher matcher = SUBSTITUTION_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String before = text.substring(0, matcher.start());
+            String after = text.substring(matcher.end());
+            TextRange range = new TextRange(matcher.start(), matcher.end());
+            if (isIdentifier(before, after)) {
+                holder.registerProblem(xmlText, range, "${" + matcher.group(1) + "} substitutes an identifier:"
+                        + " each value is a distinct statement, keep its values to a fixed set", ProblemHighlightType.WEAK_WARNING);
+                continue;
+            }
+            if (IN_LIST_PATTERN.matcher(before.trim()).find()) {
+                holder.registerProblem(xmlText, range, "${" + matcher.group(1) + "} substitutes an IN list:"
+                        + " each list is a distinct statement, bind its items with <foreach> instead");
+                continue;
+            }
+            boolean quoted = isQuoted(before, after);
+            boolean wildcard = !quoted && (before.endsWith("%") || after.startsWith("%"));
+            String message = "${" + matcher.group(1) + "} substitutes a value: each value is a distinct statement"
+                    + " for the statement caches, bind it with #{" + matcher.group(1).trim() + "}";
+            if (wildcard) {
+                holder.registerProblem(xmlText, range, message);
+            } else {
+                holder.registerProblem(xmlText, range, message, new SubstitutionQuickFix(matcher.group(1), quoted));
+            }
+        }
+    }
+
+    /**
+     * Within single quotes, the string literal of standard sql, double quotes delimit an identifier
+     */
+    private static boolean isQuoted(String before, String after) {
+        return before.endsWith("'") && after.startsWith("'");
+    }
+
+    private static boolean isIdentifier(String before, String after) {
+        if (before.endsWith("\"") && after.startsWith("\"")) {
+            return true;
+        }
+        if (isQuoted(before, after) || before.endsWith("%")) {
+            return false;
+        }
+        if (before.endsWith(".") || after.startsWith(".")) {
+            return true;
+        }
+        String prefix = before.trim();
+        if (VALUE_OPERATOR_PATTERN.matcher(prefix).find()) {
+            return false;
+        }
+        if (!prefix.endsWith(",") && !prefix.endsWith("(")) {
+            return true;
+        }
+        String keyword = null;
+        Matcher matcher = KEYWORD_PATTERN.matcher(prefix);
+        while (matcher.find()) {
+            keyword = matcher.group(1).toUpperCase(Locale.ROOT);
+        }
+        return !"LIMIT".equals(keyword) && !"OFFSET".equals(keyword) && !"VALUES".equals(keyword) && !"IN".equals(keyword);
+    }
+
+}
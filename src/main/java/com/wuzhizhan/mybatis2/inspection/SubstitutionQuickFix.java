@@ -0,0 +1,53 @@
+package com.wuzhizhan.mybatis2.inspection;
+
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Binds a substituted value as a parameter, dropping the quotes around it
+ */
+public class SubstitutionQuickFix extends GenericQuickFix {
+
+    private final String expression;
+
+    private final boolean quoted;
+
+    public SubstitutionQuickFix(@NotNull String expression, boolean quoted) {
+        this.expression = expression.trim();
+        this.quoted = quoted;
+    }
+
+    @NotNull
+    @Override
+    public String getName() {
+        return "Replace with #{" + expression + "}";
+    }
+
+    @NotNull
+    @Override
+    public String getFamilyName() {
+        return "Replace ${} with #{}";
+    }
+
+    @Override
+    public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        PsiElement element = descriptor.getPsiElement();
+        TextRange range = descriptor.getTextRangeInElement();
+        Document document = null == element ? null : PsiDocumentManager.getInstance(project).getDocument(element.getContainingFile());
+        if (null == document || null == range) {
+            return;
+        }
+        TextRange replaced = range.shiftRight(element.getTextRange().getStartOffset());
+        if (quoted) {
+            replaced = new TextRange(replaced.getStartOffset() - 1, replaced.getEndOffset() + 1);
+        }
+        document.replaceString(replaced.getStartOffset(), replaced.getEndOffset(), "#{" + expression + "}");
+        PsiDocumentManager.getInstance(project).commitDocument(document);
+    }
+
+}
@@ -1,26 +1,28 @@
 package com.wuzhizhan.mybatis2.intention;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Collections2;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.intellij.codeInsight.hint.HintManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtil;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectUtil;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.wuzhizhan.mybatis2.service.EditorService;
 import com.wuzhizhan.mybatis2.template.MybatisFileTemplateDescriptorFactory;
 import com.wuzhizhan.mybatis2.ui.ClickableListener;
 import com.wuzhizhan.mybatis2.ui.ListSelectionListener;
 import com.wuzhizhan.mybatis2.ui.UiComponentFacade;
-import com.wuzhizhan.mybatis2.util.CollectionUtils;
 import com.wuzhizhan.mybatis2.util.MapperUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -47,28 +49,37 @@ public class GenerateMapperIntention extends GenericIntention {
         return false;
     }
 
+    /**
+     * The candidate directories are collected from the indexes in a cancellable background read action run in
+     * smart mode, the popup is shown on the ui thread once they are ready
+     */
     @Override
     public void invoke(@NotNull final Project project, final Editor editor, PsiFile file) throws IncorrectOperationException {
         PsiElement element = file.findElementAt(editor.getCaretModel().getOffset());
         PsiClass clazz = PsiTreeUtil.getParentOfType(element, PsiClass.class);
-        Collection<PsiDirectory> directories = MapperUtils.findMapperDirectories(project);
-        if (CollectionUtils.isEmpty(directories)) {
-            handleChooseNewFolder(project, editor, clazz);
-        } else {
-            handleMutilDirectories(project, editor, clazz, directories);
-        }
+        ReadAction.nonBlocking(() -> getPathMap(project, MapperUtils.findMapperDirectories(project)))
+                .inSmartMode(project)
+                .finishOnUiThread(ModalityState.defaultModalityState(), pathMap -> {
+                    if (pathMap.isEmpty()) {
+                        handleChooseNewFolder(project, editor, clazz);
+                    } else {
+                        handleMutilDirectories(project, editor, clazz, pathMap);
+                    }
+                })
+                .expireWith(project)
+                .expireWhen(() -> editor.isDisposed() || null == clazz || !clazz.isValid())
+                .submit(AppExecutorUtil.getAppExecutorService());
     }
 
     private void handleMutilDirectories(Project project,
                                         final Editor editor,
                                         final PsiClass clazz,
-                                        Collection<PsiDirectory> directories) {
-        final Map<String, PsiDirectory> pathMap = getPathMap(directories);
+                                        final Map<String, Pair<PsiDirectory, String>> pathMap) {
         final ArrayList<String> keys = Lists.newArrayList(pathMap.keySet());
         ListSelectionListener popupListener = new ListSelectionListener() {
             @Override
             public void selected(int index) {
-                processGenerate(editor, clazz, pathMap.get(keys.get(index)));
+                processGenerate(editor, clazz, pathMap.get(keys.get(index)).first);
             }
 
             @Override
@@ -81,7 +92,7 @@ public class GenerateMapperIntention extends GenericIntention {
                 popupListener,
                 "Choose another",
                 getChooseFolderListener(editor, clazz),
-                getPathTextForShown(project, keys, pathMap));
+                pathMap.values().stream().map(pair -> pair.second).toArray(String[]::new));
     }
 
     private ClickableListener getChooseFolderListener(final Editor editor, final PsiClass clazz) {
@@ -108,25 +119,18 @@ public class GenerateMapperIntention extends GenericIntention {
         }
     }
 
-    private String[] getPathTextForShown(Project project, List<String> paths, final Map<String, PsiDirectory> pathMap) {
-        Collections.sort(paths);
+    /**
+     * Sorted presentable paths of the directories, with the directory and the text shown for it
+     */
+    private Map<String, Pair<PsiDirectory, String>> getPathMap(Project project, Collection<PsiDirectory> directories) {
         final String projectBasePath = project.getBasePath();
-        Collection<String> result = Lists.newArrayList(Collections2.transform(paths, new Function<String, String>() {
-            @Override
-            public String apply(String input) {
-                String relativePath = FileUtil.getRelativePath(projectBasePath, input, File.separatorChar);
-                Module module = ModuleUtil.findModuleForPsiElement(pathMap.get(input));
-                return null == module ? relativePath : ("[" + module.getName() + "] " + relativePath);
-            }
-        }));
-        return result.toArray(new String[0]);
-    }
-
-    private Map<String, PsiDirectory> getPathMap(Collection<PsiDirectory> directories) {
-        Map<String, PsiDirectory> result = Maps.newHashMap();
+        Map<String, Pair<PsiDirectory, String>> result = Maps.newTreeMap();
         for (PsiDirectory directory : directories) {
+            ProgressManager.checkCanceled();
             String presentableUrl = directory.getVirtualFile().getPresentableUrl();
-            result.put(presentableUrl, directory);
+            String relativePath = FileUtil.getRelativePath(projectBasePath, presentableUrl, File.separatorChar);
+            Module module = ModuleUtil.findModuleForPsiElement(directory);
+            result.put(presentableUrl, Pair.create(directory, null == module ? relativePath : ("[" + module.getName() + "] " + relativePath)));
         }
         return result;
     }
@@ -4,6 +4,7 @@ import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiMethod;
 import com.wuzhizhan.mybatis2.util.JavaUtils;
+import com.wuzhizhan.mybatis2.util.MapperUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -26,4 +27,11 @@ public class MapperLocator {
         return null != clazz && JavaUtils.isElementWithinInterface(clazz) && dfltLocateStrategy.apply(clazz);
     }
 
+    /**
+     * Stricter than {@link #process(PsiClass)}: the interface itself is the namespace of some mapper xml
+     */
+    public boolean isMapperNamespace(@Nullable PsiClass clazz) {
+        return null != clazz && JavaUtils.isElementWithinInterface(clazz) && MapperUtils.isMapperNamespace(clazz.getProject(), clazz);
+    }
+
 }
@@ -1,28 +1,26 @@
 package com.wuzhizhan.mybatis2.locator;
 
-import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiJavaFile;
-import com.intellij.psi.PsiPackage;
+import com.wuzhizhan.mybatis2.service.MybatisModelService;
 import org.jetbrains.annotations.NotNull;
 
 /**
+ * Accepts the classes living in a package of some mapper namespace
+ *
  * @author yanglin
  */
 public class PackageLocateStrategy extends LocateStrategy {
 
-    private final PackageProvider provider = new MapperXmlPackageProvider();
-
     @Override
     public boolean apply(@NotNull PsiClass clazz) {
-        String packageName = ((PsiJavaFile) clazz.getContainingFile()).getPackageName();
-        PsiPackage pkg = JavaPsiFacade.getInstance(clazz.getProject()).findPackage(packageName);
-        for (PsiPackage tmp : provider.getPackages(clazz.getProject())) {
-            if (tmp.equals(pkg)) {
-                return true;
-            }
+        PsiFile file = clazz.getContainingFile();
+        if (!(file instanceof PsiJavaFile)) {
+            return false;
         }
-        return false;
+        String packageName = ((PsiJavaFile) file).getPackageName();
+        return MybatisModelService.getInstance(clazz.getProject()).getModel(clazz).getNamespacePackages().contains(packageName);
     }
 
 }
@@ -56,6 +56,11 @@ public class Config {
      */
     private boolean offsetLimit;
 
+    /**
+     * 分页方式：substitution / bound / keyset
+     */
+    private String pagination = "substitution";
+
     /**
      * 是否生成实体注释（来自表）
      */
@@ -255,6 +260,14 @@ public class Config {
         this.offsetLimit = offsetLimit;
     }
 
+    public String getPagination() {
+        return pagination;
+    }
+
+    public void setPagination(String pagination) {
+        this.pagination = pagination;
+    }
+
     public boolean isComment() {
         return comment;
     }
@@ -5,9 +5,7 @@ import com.intellij.codeInsight.daemon.RelatedItemLineMarkerProvider;
 import com.intellij.codeInsight.navigation.NavigationGutterIconBuilder;
 import com.intellij.openapi.editor.markup.GutterIconRenderer;
 import com.intellij.psi.*;
-import com.intellij.psi.impl.source.PsiClassReferenceType;
 import com.wuzhizhan.mybatis2.annotation.Annotation;
-import com.wuzhizhan.mybatis2.dom.model.Mapper;
 import com.wuzhizhan.mybatis2.util.Icons;
 import com.wuzhizhan.mybatis2.util.JavaUtils;
 import com.wuzhizhan.mybatis2.util.MapperUtils;
@@ -20,6 +18,9 @@ import java.util.Collection;
 import java.util.Optional;
 
 /**
+ * Marks injected mappers: annotated fields, constructor parameters and the final fields
+ * of lombok {@code @RequiredArgsConstructor} classes.
+ *
  * @author yanglin
  */
 public class InjectionLineMarkerProvider extends RelatedItemLineMarkerProvider {
@@ -32,29 +33,32 @@ public class InjectionLineMarkerProvider extends RelatedItemLineMarkerProvider {
         }
 
         PsiElement identifier = uElement.getJavaPsi();
-        if (identifier == null) {
-            return;
-        }
-        if (!(identifier instanceof PsiField)) return;
-        PsiField field = (PsiField) identifier;
-        if (!isTargetField(field)) return;
-
-        PsiType type = field.getType();
-        if (!(type instanceof PsiClassReferenceType)) return;
+        if (!(identifier instanceof PsiVariable)) return;
+        PsiVariable variable = (PsiVariable) identifier;
+        if (!isTargetVariable(variable)) return;
 
-        Optional<PsiClass> clazz = JavaUtils.findClazz(identifier.getProject(), type.getCanonicalText());
-        if (!clazz.isPresent()) return;
+        PsiType type = variable.getType();
+        if (!(type instanceof PsiClassType)) return;
 
-        PsiClass psiClass = clazz.get();
-        Optional<Mapper> mapper = MapperUtils.findFirstMapper(identifier.getProject(), psiClass);
-        if (!mapper.isPresent()) return;
+        PsiClass psiClass = ((PsiClassType) type).resolve();
+        if (!MapperUtils.isMapperNamespace(identifier.getProject(), psiClass)) return;
 
         NavigationGutterIconBuilder<PsiElement> builder =
                 NavigationGutterIconBuilder.create(Icons.SPRING_INJECTION_ICON)
                         .setAlignment(GutterIconRenderer.Alignment.CENTER)
                         .setTarget(psiClass)
                         .setTooltipTitle("Data access object found - " + psiClass.getQualifiedName());
-        result.add(builder.createLineMarkerInfo(field.getNameIdentifier()));
+        result.add(builder.createLineMarkerInfo(variable.getNameIdentifier()));
+    }
+
+    private boolean isTargetVariable(PsiVariable variable) {
+        if (variable instanceof PsiField) {
+            return isTargetField((PsiField) variable);
+        }
+        if (variable instanceof PsiParameter) {
+            return isConstructorParameter((PsiParameter) variable);
+        }
+        return false;
     }
 
     private boolean isTargetField(PsiField field) {
@@ -64,10 +68,29 @@ public class InjectionLineMarkerProvider extends RelatedItemLineMarkerProvider {
         Optional<PsiAnnotation> resourceAnno = JavaUtils.getPsiAnnotation(field, Annotation.RESOURCE);
         if (resourceAnno.isPresent()) {
             PsiAnnotationMemberValue nameValue = resourceAnno.get().findAttributeValue("name");
-            String name = nameValue.getText().replaceAll("\"", "");
+            String name = null == nameValue ? "" : nameValue.getText().replaceAll("\"", "");
             return StringUtils.isBlank(name) || name.equals(field.getName());
         }
-        return false;
+        PsiClass clazz = field.getContainingClass();
+        return field.hasModifierProperty(PsiModifier.FINAL)
+                && !field.hasModifierProperty(PsiModifier.STATIC)
+                && null == field.getInitializer()
+                && null != clazz
+                && JavaUtils.isAnnotationPresent(clazz, Annotation.REQUIRED_ARGS_CONSTRUCTOR);
+    }
+
+    /**
+     * Parameters of an {@code @Autowired} constructor or of the only constructor, which spring injects implicitly
+     */
+    private boolean isConstructorParameter(PsiParameter parameter) {
+        PsiElement scope = parameter.getDeclarationScope();
+        if (!(scope instanceof PsiMethod) || !((PsiMethod) scope).isConstructor()) {
+            return false;
+        }
+        PsiMethod constructor = (PsiMethod) scope;
+        PsiClass clazz = constructor.getContainingClass();
+        return JavaUtils.isAnnotationPresent(constructor, Annotation.AUTOWIRED)
+                || (null != clazz && clazz.getConstructors().length == 1);
     }
 
 }
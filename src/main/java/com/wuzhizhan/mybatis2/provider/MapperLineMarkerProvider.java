@@ -1,55 +1,131 @@
 package com.wuzhizhan.mybatis2.provider;
 
+import com.google.common.collect.ListMultimap;
 import com.intellij.codeInsight.daemon.RelatedItemLineMarkerInfo;
 import com.intellij.codeInsight.daemon.RelatedItemLineMarkerProvider;
 import com.intellij.codeInsight.navigation.NavigationGutterIconBuilder;
 import com.intellij.openapi.editor.markup.GutterIconRenderer;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiNameIdentifierOwner;
 import com.intellij.psi.xml.XmlTag;
-import com.intellij.util.CommonProcessors;
 import com.intellij.util.xml.DomElement;
+import com.wuzhizhan.mybatis2.dom.model.IdDomElement;
 import com.wuzhizhan.mybatis2.service.JavaService;
+import com.wuzhizhan.mybatis2.service.MapperSummaryService;
 import com.wuzhizhan.mybatis2.util.Icons;
 import com.wuzhizhan.mybatis2.util.JavaUtils;
+import com.wuzhizhan.mybatis2.util.MapperUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.uast.UElement;
 import org.jetbrains.uast.UastUtils;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
+ * Markers are computed for all identifiers of a file at once, the statements of every mapper interface
+ * are looked up a single time and shared by all of its methods. While indexing, the targets come from the
+ * {@link MapperSummaryService} of the previous session.
+ *
  * @author yanglin
  */
-public class MapperLineMarkerProvider extends RelatedItemLineMarkerProvider {
+public class MapperLineMarkerProvider extends RelatedItemLineMarkerProvider implements DumbAware {
 
     @Override
     protected void collectNavigationMarkers(@NotNull PsiElement element, @NotNull Collection<? super RelatedItemLineMarkerInfo<?>> result) {
-        UElement uElement = UastUtils.getUParentForIdentifier(element);
-        if (uElement == null) {
+        collectNavigationMarkers(Collections.singletonList(element), result, false);
+    }
+
+    @Override
+    public void collectNavigationMarkers(@NotNull List<? extends PsiElement> elements,
+                                         @NotNull Collection<? super RelatedItemLineMarkerInfo<?>> result,
+                                         boolean forNavigation) {
+        if (elements.isEmpty()) {
             return;
         }
-
-        PsiElement identifier = uElement.getJavaPsi();
-        if (identifier == null) {
+        if (DumbService.isDumb(elements.get(0).getProject())) {
+            collectSummaryMarkers(elements, result);
             return;
         }
-        if (identifier instanceof PsiNameIdentifierOwner && JavaUtils.isElementWithinInterface(identifier)) {
-            CommonProcessors.CollectProcessor<DomElement> processor = new CommonProcessors.CollectProcessor<>();
-            JavaService.getInstance(identifier.getProject()).process(identifier, processor);
-            Collection<DomElement> results = processor.getResults();
-            if (results.isEmpty()) {
-                return;
+        Map<PsiClass, ListMultimap<String, IdDomElement>> statementsByClass = new HashMap<>();
+        for (PsiElement element : elements) {
+            ProgressManager.checkCanceled();
+            PsiNameIdentifierOwner identifier = getInterfaceMember(element);
+            if (identifier instanceof PsiClass) {
+                addMarker(identifier, toTags(MapperUtils.findMappers(identifier.getProject(), (PsiClass) identifier)), result);
+            } else if (identifier instanceof PsiMethod) {
+                PsiClass clazz = ((PsiMethod) identifier).getContainingClass();
+                if (null != clazz) {
+                    ListMultimap<String, IdDomElement> statements = statementsByClass.computeIfAbsent(clazz,
+                            key -> JavaService.getInstance(key.getProject()).getStatementsById(key));
+                    addMarker(identifier, toTags(statements.get(((PsiMethod) identifier).getName())), result);
+                }
+            }
+        }
+    }
+
+    private void collectSummaryMarkers(@NotNull List<? extends PsiElement> elements,
+                                       @NotNull Collection<? super RelatedItemLineMarkerInfo<?>> result) {
+        MapperSummaryService summary = MapperSummaryService.getInstance(elements.get(0).getProject());
+        for (PsiElement element : elements) {
+            ProgressManager.checkCanceled();
+            PsiNameIdentifierOwner identifier = getInterfaceMember(element);
+            if (identifier instanceof PsiClass) {
+                String ns = ((PsiClass) identifier).getQualifiedName();
+                if (null != ns) {
+                    addMarker(identifier, summary.findMapperTags(ns), result);
+                }
+            } else if (identifier instanceof PsiMethod) {
+                PsiClass clazz = ((PsiMethod) identifier).getContainingClass();
+                String ns = null == clazz ? null : clazz.getQualifiedName();
+                if (null != ns) {
+                    addMarker(identifier, summary.findStatementTags(ns, ((PsiMethod) identifier).getName()), result);
+                }
             }
-            List<XmlTag> targets = results.stream().map(DomElement::getXmlTag).collect(Collectors.toList());
-            NavigationGutterIconBuilder<PsiElement> builder =
-                    NavigationGutterIconBuilder.create(Icons.MAPPER_LINE_MARKER_ICON)
-                            .setAlignment(GutterIconRenderer.Alignment.CENTER)
-                            .setTargets(targets)
-                            .setTooltipTitle("Navigation to Target in Mapper Xml");
-            result.add(builder.createLineMarkerInfo(((PsiNameIdentifierOwner) identifier).getNameIdentifier()));
         }
     }
+
+    @Nullable
+    private static PsiNameIdentifierOwner getInterfaceMember(@NotNull PsiElement element) {
+        UElement uElement = UastUtils.getUParentForIdentifier(element);
+        if (uElement == null) {
+            return null;
+        }
+        PsiElement identifier = uElement.getJavaPsi();
+        if (identifier instanceof PsiNameIdentifierOwner && JavaUtils.isElementWithinInterface(identifier)) {
+            return (PsiNameIdentifierOwner) identifier;
+        }
+        return null;
+    }
+
+    @NotNull
+    private static List<XmlTag> toTags(@NotNull Collection<? extends DomElement> results) {
+        return results.stream().map(DomElement::getXmlTag).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private static void addMarker(@NotNull PsiNameIdentifierOwner identifier,
+                                  @NotNull List<XmlTag> targets,
+                                  @NotNull Collection<? super RelatedItemLineMarkerInfo<?>> result) {
+        PsiElement nameIdentifier = identifier.getNameIdentifier();
+        if (targets.isEmpty() || null == nameIdentifier) {
+            return;
+        }
+        NavigationGutterIconBuilder<PsiElement> builder =
+                NavigationGutterIconBuilder.create(Icons.MAPPER_LINE_MARKER_ICON)
+                        .setAlignment(GutterIconRenderer.Alignment.CENTER)
+                        .setTargets(targets)
+                        .setTooltipTitle("Navigation to Target in Mapper Xml");
+        result.add(builder.createLineMarkerInfo(nameIdentifier));
+    }
 }
@@ -1,11 +1,18 @@
 package com.wuzhizhan.mybatis2.provider;
 
 import com.google.common.collect.ImmutableSet;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.pom.Navigatable;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.xml.XmlFile;
 import com.intellij.psi.xml.XmlTag;
 import com.intellij.psi.xml.XmlToken;
 import com.intellij.util.xml.DomElement;
@@ -16,6 +23,8 @@ import com.wuzhizhan.mybatis2.dom.model.Insert;
 import com.wuzhizhan.mybatis2.dom.model.Mapper;
 import com.wuzhizhan.mybatis2.dom.model.Select;
 import com.wuzhizhan.mybatis2.dom.model.Update;
+import com.wuzhizhan.mybatis2.service.MapperSummaryService;
+import com.wuzhizhan.mybatis2.util.DomUtils;
 import com.wuzhizhan.mybatis2.util.Icons;
 import com.wuzhizhan.mybatis2.util.JavaUtils;
 import com.wuzhizhan.mybatis2.util.MapperUtils;
@@ -23,12 +32,14 @@ import com.wuzhizhan.mybatis2.util.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * @author yanglin
  */
-public class StatementLineMarkerProvider extends SimpleLineMarkerProvider<XmlToken, PsiElement> {
+public class StatementLineMarkerProvider extends SimpleLineMarkerProvider<XmlToken, PsiElement> implements DumbAware {
     private static final String MAPPER_CLASS = Mapper.class.getSimpleName().toLowerCase();
 
     private static final ImmutableSet<String> TARGET_TYPES = ImmutableSet.of(
@@ -41,29 +52,56 @@ public class StatementLineMarkerProvider extends SimpleLineMarkerProvider<XmlTok
     @Override
     public boolean isTheElement(@NotNull PsiElement element) {
         return element instanceof XmlToken
-                && MapperUtils.isElementWithinMybatisFile(element)
-                && isTargetType((XmlToken) element);
+                && isTargetType((XmlToken) element)
+                && DomUtils.isMybatisFile(element.getContainingFile());
     }
 
     @NotNull
     @Override
     public Optional<? extends PsiElement> apply(@NotNull XmlToken from) {
+        if (DumbService.isDumb(from.getProject())) {
+            return applyFromSummary(from);
+        }
         DomElement domElement = DomUtil.getDomElement(from);
         if (domElement == null) {
             return Optional.empty();
         }
+        MapperFile mapperFile = getMapperFile(from.getContainingFile());
         if (domElement instanceof IdDomElement) {
-            return JavaUtils.findMethod(from.getProject(), (IdDomElement) domElement);
+            String id = MapperUtils.getId((IdDomElement) domElement);
+            return null == id ? Optional.empty() : Optional.ofNullable(mapperFile.methods.get(id.trim()));
         }
-        XmlTag xmlTag = domElement.getXmlTag();
-        if (xmlTag == null) {
+        return Optional.ofNullable(mapperFile.clazz);
+    }
+
+    /**
+     * Resolves the target from plain psi and the summary of the previous session, as no index can be used
+     */
+    @NotNull
+    private Optional<? extends PsiElement> applyFromSummary(@NotNull XmlToken from) {
+        PsiFile file = from.getContainingFile();
+        XmlTag rootTag = file instanceof XmlFile ? ((XmlFile) file).getRootTag() : null;
+        String namespace = null == rootTag ? null : rootTag.getAttributeValue("namespace");
+        if (!(from.getParent() instanceof XmlTag) || StringUtils.isEmpty(namespace)) {
             return Optional.empty();
         }
-        String clazzName = xmlTag.getAttributeValue("namespace");
-        if (StringUtils.isEmpty(clazzName)) {
+        Optional<PsiClass> clazz = MapperSummaryService.getInstance(from.getProject()).findClass(namespace.trim());
+        XmlTag tag = (XmlTag) from.getParent();
+        if (tag == rootTag) {
+            return clazz;
+        }
+        String id = tag.getAttributeValue("id");
+        if (!clazz.isPresent() || StringUtils.isEmpty(id)) {
             return Optional.empty();
         }
-        return JavaUtils.findClazz(from.getProject(), clazzName);
+        PsiMethod[] methods = clazz.get().findMethodsByName(id.trim(), true);
+        return methods.length == 0 ? Optional.empty() : Optional.of(methods[0]);
+    }
+
+    @NotNull
+    private MapperFile getMapperFile(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+                new MapperFile(file), PsiModificationTracker.getInstance(file.getProject())));
     }
 
     private boolean isTargetType(XmlToken token) {
@@ -112,4 +150,26 @@ public class StatementLineMarkerProvider extends SimpleLineMarkerProvider<XmlTok
         return Icons.STATEMENT_LINE_MARKER_ICON;
     }
 
+    /**
+     * The namespace class of a mapper file and its methods by name, resolved once per file and modification
+     */
+    private static final class MapperFile {
+
+        private final PsiClass clazz;
+
+        private final Map<String, PsiMethod> methods = new HashMap<>();
+
+        private MapperFile(@NotNull PsiFile file) {
+            XmlTag rootTag = file instanceof XmlFile ? ((XmlFile) file).getRootTag() : null;
+            String clazzName = null == rootTag ? null : rootTag.getAttributeValue("namespace");
+            this.clazz = StringUtils.isEmpty(clazzName) ? null : JavaUtils.findClazz(file.getProject(), clazzName.trim()).orElse(null);
+            if (null != clazz) {
+                for (PsiMethod method : clazz.getAllMethods()) {
+                    methods.putIfAbsent(method.getName(), method);
+                }
+            }
+        }
+
+    }
+
 }
@@ -1,5 +1,7 @@
 package com.wuzhizhan.mybatis2.service;
 
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.*;
 import com.intellij.psi.impl.source.PsiClassReferenceType;
@@ -8,6 +10,7 @@ import com.intellij.util.Processor;
 import com.intellij.util.xml.DomElement;
 import com.wuzhizhan.mybatis2.dom.model.IdDomElement;
 import com.wuzhizhan.mybatis2.dom.model.Mapper;
+import com.wuzhizhan.mybatis2.index.MapperStatementIndex;
 import com.wuzhizhan.mybatis2.util.JavaUtils;
 import com.wuzhizhan.mybatis2.util.MapperUtils;
 import org.jetbrains.annotations.NotNull;
@@ -56,23 +59,41 @@ public class JavaService {
     public void processMethod(@NotNull PsiMethod psiMethod, @NotNull Processor<IdDomElement> processor) {
         PsiClass psiClass = psiMethod.getContainingClass();
         if (null == psiClass) return;
-        String id = psiClass.getQualifiedName() + "." + psiMethod.getName();
-        for (Mapper mapper : MapperUtils.findMappers(psiMethod.getProject())) {
-            for (IdDomElement idDomElement : mapper.getDaoElements()) {
-                if (MapperUtils.getIdSignature(idDomElement).equals(id)) {
-                    processor.process(idDomElement);
-                }
+        String ns = psiClass.getQualifiedName();
+        if (null == ns) return;
+        String signature = MapperStatementIndex.getSignature(ns, psiMethod.getName());
+        for (IdDomElement statement : MybatisModelService.getInstance(project).getModel(psiClass).getStatements(signature)) {
+            if (!processor.process(statement)) {
+                return;
             }
         }
     }
 
     public void processClass(@NotNull PsiClass clazz, @NotNull Processor<Mapper> processor) {
         String ns = clazz.getQualifiedName();
-        for (Mapper mapper : MapperUtils.findMappers(clazz.getProject())) {
-            if (MapperUtils.getNamespace(mapper).equals(ns)) {
-                processor.process(mapper);
+        if (null == ns) return;
+        for (Mapper mapper : MybatisModelService.getInstance(project).getModel(clazz).getMappers(ns)) {
+            processor.process(mapper);
+        }
+    }
+
+    /**
+     * Statements of all mappers of the class keyed by their id, so the methods of one interface share a single lookup
+     */
+    @NotNull
+    public ListMultimap<String, IdDomElement> getStatementsById(@NotNull PsiClass clazz) {
+        String ns = clazz.getQualifiedName();
+        if (null == ns) return ImmutableListMultimap.of();
+        ImmutableListMultimap.Builder<String, IdDomElement> builder = ImmutableListMultimap.builder();
+        for (Mapper mapper : MybatisModelService.getInstance(project).getModel(clazz).getMappers(ns)) {
+            for (IdDomElement statement : mapper.getDaoElements()) {
+                String id = MapperUtils.getId(statement);
+                if (null != id) {
+                    builder.put(id.trim(), statement);
+                }
             }
         }
+        return builder.build();
     }
 
     public void process(@NotNull PsiElement target, @NotNull Processor processor) {
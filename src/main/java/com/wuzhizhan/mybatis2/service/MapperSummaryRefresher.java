@@ -0,0 +1,65 @@
+package com.wuzhizhan.mybatis2.service;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Refreshes the {@link MapperSummaryService} whenever indexing finishes, and in smart mode updates the entries of
+ * the xml files of the project that are saved, created, moved or deleted
+ */
+public class MapperSummaryRefresher implements DumbService.DumbModeListener, BulkFileListener {
+
+    private final Project project;
+
+    public MapperSummaryRefresher(Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public void exitDumbMode() {
+        MapperSummaryService.getInstance(project).refresh();
+    }
+
+    @Override
+    public void after(@NotNull List<? extends VFileEvent> events) {
+        if (project.isDisposed() || DumbService.isDumb(project)) {
+            return;
+        }
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        Set<String> fileUrls = new LinkedHashSet<>();
+        for (VFileEvent event : events) {
+            VirtualFile file = event.getFile();
+            if (null != file && file.isValid() && !fileIndex.isInContent(file)) {
+                continue;
+            }
+            addXmlUrl(fileUrls, event.getPath());
+            if (event instanceof VFileMoveEvent) {
+                addXmlUrl(fileUrls, ((VFileMoveEvent) event).getOldPath());
+            } else if (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+                addXmlUrl(fileUrls, ((VFilePropertyChangeEvent) event).getOldPath());
+            }
+        }
+        if (!fileUrls.isEmpty()) {
+            MapperSummaryService.getInstance(project).update(fileUrls);
+        }
+    }
+
+    private static void addXmlUrl(Set<String> fileUrls, String path) {
+        if (path.endsWith(".xml")) {
+            fileUrls.add(VfsUtilCore.pathToUrl(path));
+        }
+    }
+
+}
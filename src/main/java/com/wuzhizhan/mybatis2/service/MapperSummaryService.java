@@ -0,0 +1,339 @@
+package com.wuzhizhan.mybatis2.service;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Lists;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.wuzhizhan.mybatis2.index.MapperNamespaceIndex;
+import com.wuzhizhan.mybatis2.index.MapperStatementIndex;
+import com.wuzhizhan.mybatis2.util.JavaUtils;
+import com.wuzhizhan.mybatis2.util.MybatisFileKind;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Summary of the mapper files of the last smart mode: namespace, class file, statement ids and offsets.
+ * <p>
+ * It is persisted in the caches of the project, so that navigation between java and xml keeps working from
+ * plain psi while the indexes are being built, e.g. right after opening the project or switching branches.
+ * Offsets may be outdated, a statement is then searched among the tags of its file by id.
+ */
+@State(name = "MybatisMapperSummary", storages = @Storage(StoragePathMacros.CACHE_FILE))
+public class MapperSummaryService implements PersistentStateComponent<MapperSummaryService.Summary> {
+
+    private final Project project;
+
+    private volatile Summary summary = new Summary();
+
+    private volatile ImmutableListMultimap<String, MapperEntry> mappersByNamespace = ImmutableListMultimap.of();
+
+    public MapperSummaryService(Project project) {
+        this.project = project;
+    }
+
+    public static MapperSummaryService getInstance(@NotNull Project project) {
+        return project.getService(MapperSummaryService.class);
+    }
+
+    @NotNull
+    @Override
+    public Summary getState() {
+        return summary;
+    }
+
+    @Override
+    public void loadState(@NotNull Summary state) {
+        this.summary = state;
+        ImmutableListMultimap.Builder<String, MapperEntry> builder = ImmutableListMultimap.builder();
+        for (MapperEntry mapper : state.getMappers()) {
+            if (null != mapper.getNamespace()) {
+                builder.put(mapper.getNamespace(), mapper);
+            }
+        }
+        this.mappersByNamespace = builder.build();
+    }
+
+    /**
+     * Collects a new summary from the indexes once the project is smart, requests made meanwhile are merged
+     */
+    public void refresh() {
+        ReadAction.nonBlocking(this::collectSummary)
+                .inSmartMode(project)
+                .coalesceBy(this)
+                .expireWith(project)
+                .submit(AppExecutorUtil.getAppExecutorService())
+                .onSuccess(this::loadState);
+    }
+
+    /**
+     * Updates the entries of the given files once the project is smart. Only the files that are mapper files or
+     * that the summary already lists are collected again, the entries of the other files are kept as they are.
+     */
+    public void update(@NotNull Collection<String> fileUrls) {
+        ReadAction.nonBlocking(() -> collectUpdate(fileUrls))
+                .inSmartMode(project)
+                .expireWith(project)
+                .submit(AppExecutorUtil.getAppExecutorService())
+                .onSuccess(update -> {
+                    if (null != update) {
+                        loadState(update);
+                    }
+                });
+    }
+
+    @NotNull
+    public List<XmlTag> findMapperTags(@NotNull String namespace) {
+        List<XmlTag> result = Lists.newArrayList();
+        for (MapperEntry mapper : mappersByNamespace.get(namespace)) {
+            XmlFile file = findPsiFile(mapper.getFileUrl(), XmlFile.class);
+            XmlTag rootTag = null == file ? null : file.getRootTag();
+            if (null != rootTag) {
+                result.add(rootTag);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    public List<XmlTag> findStatementTags(@NotNull String namespace, @NotNull String id) {
+        List<XmlTag> result = Lists.newArrayList();
+        for (MapperEntry mapper : mappersByNamespace.get(namespace)) {
+            for (StatementEntry statement : mapper.getStatements()) {
+                if (id.equals(statement.getId())) {
+                    XmlFile file = findPsiFile(mapper.getFileUrl(), XmlFile.class);
+                    XmlTag tag = null == file ? null : findStatementTag(file, statement);
+                    if (null != tag) {
+                        result.add(tag);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The namespace class, found in its recorded file without any index
+     */
+    @NotNull
+    public Optional<PsiClass> findClass(@NotNull String namespace) {
+        for (MapperEntry mapper : mappersByNamespace.get(namespace)) {
+            PsiClassOwner file = findPsiFile(mapper.getClassFileUrl(), PsiClassOwner.class);
+            if (null != file) {
+                for (PsiClass clazz : file.getClasses()) {
+                    if (namespace.equals(clazz.getQualifiedName())) {
+                        return Optional.of(clazz);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Nullable
+    private XmlTag findStatementTag(@NotNull XmlFile file, @NotNull StatementEntry statement) {
+        XmlTag tag = PsiTreeUtil.getParentOfType(file.findElementAt(statement.getOffset()), XmlTag.class, false);
+        if (null != tag && statement.getId().equals(tag.getAttributeValue("id"))) {
+            return tag;
+        }
+        XmlTag rootTag = file.getRootTag();
+        if (null != rootTag) {
+            for (XmlTag subTag : rootTag.getSubTags()) {
+                if (statement.getId().equals(subTag.getAttributeValue("id"))) {
+                    return subTag;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private <T extends PsiFile> T findPsiFile(@Nullable String url, @NotNull Class<T> clazz) {
+        VirtualFile file = null == url ? null : VirtualFileManager.getInstance().findFileByUrl(url);
+        PsiFile psiFile = null == file || !file.isValid() ? null : PsiManager.getInstance(project).findFile(file);
+        return clazz.isInstance(psiFile) ? clazz.cast(psiFile) : null;
+    }
+
+    /**
+     * The summary with the entries of the changed mapper files replaced, null when none of the files is concerned
+     */
+    @Nullable
+    private Summary collectUpdate(@NotNull Collection<String> fileUrls) {
+        Summary current = summary;
+        Set<String> listed = new HashSet<>();
+        for (MapperEntry mapper : current.getMappers()) {
+            listed.add(mapper.getFileUrl());
+        }
+        Set<String> changed = new HashSet<>();
+        List<MapperEntry> updated = new ArrayList<>();
+        for (String url : fileUrls) {
+            VirtualFile file = VirtualFileManager.getInstance().findFileByUrl(url);
+            PsiFile psiFile = null == file || !file.isValid() ? null : PsiManager.getInstance(project).findFile(file);
+            boolean mapperFile = MybatisFileKind.of(psiFile) == MybatisFileKind.MAPPER;
+            if (!mapperFile && !listed.contains(url)) {
+                continue;
+            }
+            changed.add(url);
+            if (mapperFile) {
+                for (String namespace : MapperNamespaceIndex.getNamespaces(file, project).keySet()) {
+                    updated.add(collectEntry(namespace, file, findClassFileUrl(namespace)));
+                }
+            }
+        }
+        if (changed.isEmpty()) {
+            return null;
+        }
+        List<MapperEntry> mappers = new ArrayList<>();
+        for (MapperEntry mapper : current.getMappers()) {
+            if (!changed.contains(mapper.getFileUrl())) {
+                mappers.add(mapper);
+            }
+        }
+        mappers.addAll(updated);
+        Summary result = new Summary();
+        result.setMappers(mappers);
+        return result;
+    }
+
+    @NotNull
+    private Summary collectSummary() {
+        GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        List<MapperEntry> mappers = new ArrayList<>();
+        for (String namespace : MapperNamespaceIndex.getAllNamespaces(project)) {
+            String classFileUrl = findClassFileUrl(namespace);
+            for (VirtualFile file : MapperNamespaceIndex.getFiles(namespace, scope)) {
+                mappers.add(collectEntry(namespace, file, classFileUrl));
+            }
+        }
+        Summary result = new Summary();
+        result.setMappers(mappers);
+        return result;
+    }
+
+    @Nullable
+    private String findClassFileUrl(@NotNull String namespace) {
+        return JavaUtils.findClazz(project, namespace)
+                .map(PsiElement::getContainingFile)
+                .map(PsiFile::getVirtualFile)
+                .map(VirtualFile::getUrl)
+                .orElse(null);
+    }
+
+    @NotNull
+    private MapperEntry collectEntry(@NotNull String namespace, @NotNull VirtualFile file, @Nullable String classFileUrl) {
+        MapperEntry mapper = new MapperEntry();
+        mapper.setNamespace(namespace);
+        mapper.setFileUrl(file.getUrl());
+        mapper.setClassFileUrl(classFileUrl);
+        Map<String, List<Integer>> offsets = FileBasedIndex.getInstance().getFileData(MapperStatementIndex.NAME, file, project);
+        for (Map.Entry<String, List<Integer>> entry : offsets.entrySet()) {
+            if (entry.getKey().startsWith(namespace + ".") && !entry.getValue().isEmpty()) {
+                StatementEntry statement = new StatementEntry();
+                statement.setId(entry.getKey().substring(namespace.length() + 1));
+                statement.setOffset(entry.getValue().get(0));
+                mapper.getStatements().add(statement);
+            }
+        }
+        return mapper;
+    }
+
+    public static class Summary {
+
+        private List<MapperEntry> mappers = new ArrayList<>();
+
+        public List<MapperEntry> getMappers() {
+            return mappers;
+        }
+
+        public void setMappers(List<MapperEntry> mappers) {
+            this.mappers = mappers;
+        }
+    }
+
+    public static class MapperEntry {
+
+        private String namespace;
+
+        private String fileUrl;
+
+        private String classFileUrl;
+
+        private List<StatementEntry> statements = new ArrayList<>();
+
+        public String getNamespace() {
+            return namespace;
+        }
+
+        public void setNamespace(String namespace) {
+            this.namespace = namespace;
+        }
+
+        public String getFileUrl() {
+            return fileUrl;
+        }
+
+        public void setFileUrl(String fileUrl) {
+            this.fileUrl = fileUrl;
+        }
+
+        public String getClassFileUrl() {
+            return classFileUrl;
+        }
+
+        public void setClassFileUrl(String classFileUrl) {
+            this.classFileUrl = classFileUrl;
+        }
+
+        public List<StatementEntry> getStatements() {
+            return statements;
+        }
+
+        public void setStatements(List<StatementEntry> statements) {
+            this.statements = statements;
+        }
+    }
+
+    public static class StatementEntry {
+
+        private String id;
+
+        private int offset;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public void setOffset(int offset) {
+            this.offset = offset;
+        }
+    }
+
+}
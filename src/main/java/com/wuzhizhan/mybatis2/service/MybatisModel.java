@@ -0,0 +1,323 @@
+package com.wuzhizhan.mybatis2.service;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.CommonProcessors;
+import com.wuzhizhan.mybatis2.dom.model.*;
+import com.wuzhizhan.mybatis2.dom.model.Package;
+import com.wuzhizhan.mybatis2.index.MapperNamespaceIndex;
+import com.wuzhizhan.mybatis2.index.MapperStatementIndex;
+import com.wuzhizhan.mybatis2.util.DomUtils;
+import com.wuzhizhan.mybatis2.util.MapperUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable view of the mybatis xml files within a scope at one modification count, see {@link MybatisModelService}.
+ * <p>
+ * Every part is computed on first use: per namespace or per statement facts only touch the matching files through
+ * the indexes, project wide facts are collected once and shared by all callers until the next modification.
+ */
+public class MybatisModel {
+
+    private final Project project;
+
+    private final GlobalSearchScope scope;
+
+    private final Map<String, List<Mapper>> mappersByNamespace = new ConcurrentHashMap<>();
+
+    private final Map<String, List<IdDomElement>> statementsBySignature = new ConcurrentHashMap<>();
+
+    private final Supplier<List<Mapper>> mappers;
+
+    private final Supplier<Set<String>> namespaces;
+
+    private final CachedValue<Set<String>> namespacePackages;
+
+    private final Supplier<Set<VirtualFile>> mapperDirectories;
+
+    private final Supplier<IdTable<ResultMap>> resultMaps;
+
+    private final Supplier<IdTable<Sql>> sqls;
+
+    private final Supplier<IdTable<ParameterMap>> parameterMaps;
+
+    private final Supplier<List<TypeAlias>> typeAliases;
+
+    private final Supplier<List<Package>> aliasPackages;
+
+    MybatisModel(@NotNull Project project, @NotNull GlobalSearchScope scope) {
+        this.project = project;
+        this.scope = scope;
+        this.mappers = Suppliers.memoize(() -> ImmutableList.copyOf(DomUtils.findDomElements(project, Mapper.class, scope)));
+        this.namespaces = Suppliers.memoize(this::collectNamespaces);
+        this.namespacePackages = CachedValuesManager.getManager(project).createCachedValue(() -> CachedValueProvider.Result.create(
+                collectNamespacePackages(),
+                PsiModificationTracker.getInstance(project).forLanguage(JavaLanguage.INSTANCE),
+                ProjectRootManager.getInstance(project)), false);
+        this.mapperDirectories = Suppliers.memoize(this::collectMapperDirectories);
+        this.resultMaps = Suppliers.memoize(() -> new IdTable<>(getMappers(), Mapper::getResultMaps));
+        this.sqls = Suppliers.memoize(() -> new IdTable<>(getMappers(), Mapper::getSqls));
+        this.parameterMaps = Suppliers.memoize(() -> new IdTable<>(getMappers(), Mapper::getParameterMaps));
+        Supplier<List<Configuration>> configurations =
+                Suppliers.memoize(() -> ImmutableList.copyOf(DomUtils.findDomElements(project, Configuration.class, scope)));
+        this.typeAliases = Suppliers.memoize(() -> {
+            ImmutableList.Builder<TypeAlias> builder = ImmutableList.builder();
+            for (Configuration conf : configurations.get()) {
+                for (TypeAliases tas : conf.getTypeAliases()) {
+                    for (TypeAlias ta : tas.getTypeAlias()) {
+                        if (null != ta.getAlias().getStringValue()) {
+                            builder.add(ta);
+                        }
+                    }
+                }
+            }
+            return builder.build();
+        });
+        this.aliasPackages = Suppliers.memoize(() -> {
+            ImmutableList.Builder<Package> builder = ImmutableList.builder();
+            for (Configuration conf : configurations.get()) {
+                for (TypeAliases tas : conf.getTypeAliases()) {
+                    builder.addAll(tas.getPackages());
+                }
+            }
+            return builder.build();
+        });
+    }
+
+    /**
+     * Files outside of this scope are not part of the model
+     */
+    @NotNull
+    public GlobalSearchScope getScope() {
+        return scope;
+    }
+
+    @NotNull
+    public List<Mapper> getMappers() {
+        return mappers.get();
+    }
+
+    @NotNull
+    public List<Mapper> getMappers(@NotNull String namespace) {
+        return mappersByNamespace.computeIfAbsent(namespace, ns ->
+                ImmutableList.copyOf(DomUtils.findDomElements(project, Mapper.class, MapperNamespaceIndex.getFiles(ns, scope))));
+    }
+
+    @NotNull
+    public Set<String> getNamespaces() {
+        return namespaces.get();
+    }
+
+    public boolean isMapperNamespace(@NotNull String qualifiedName) {
+        return getNamespaces().contains(qualifiedName);
+    }
+
+    /**
+     * Package names of the namespace classes, resolved once per java modification
+     */
+    @NotNull
+    public Set<String> getNamespacePackages() {
+        return namespacePackages.getValue();
+    }
+
+    /**
+     * Directories containing mapper files, taken from the namespace index without building any dom
+     */
+    @NotNull
+    public Set<VirtualFile> getMapperDirectories() {
+        return mapperDirectories.get();
+    }
+
+    /**
+     * @param signature namespace.id of a select/insert/update/delete statement
+     */
+    @NotNull
+    public List<IdDomElement> getStatements(@NotNull String signature) {
+        return statementsBySignature.computeIfAbsent(signature, key -> {
+            CommonProcessors.CollectProcessor<IdDomElement> processor = new CommonProcessors.CollectProcessor<>();
+            MapperStatementIndex.processStatements(project, key, scope, processor);
+            return ImmutableList.copyOf(processor.getResults());
+        });
+    }
+
+    @NotNull
+    public IdTable<ResultMap> getResultMaps() {
+        return resultMaps.get();
+    }
+
+    @NotNull
+    public IdTable<Sql> getSqls() {
+        return sqls.get();
+    }
+
+    @NotNull
+    public IdTable<ParameterMap> getParameterMaps() {
+        return parameterMaps.get();
+    }
+
+    /**
+     * Type aliases with a name, declared in the mybatis configuration files
+     */
+    @NotNull
+    public List<TypeAlias> getTypeAliases() {
+        return typeAliases.get();
+    }
+
+    /**
+     * Type alias packages declared in the mybatis configuration files
+     */
+    @NotNull
+    public List<Package> getAliasPackages() {
+        return aliasPackages.get();
+    }
+
+    private Set<String> collectNamespaces() {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        for (String namespace : MapperNamespaceIndex.getAllNamespaces(project)) {
+            if (!MapperNamespaceIndex.getFiles(namespace, scope).isEmpty()) {
+                builder.add(namespace);
+            }
+        }
+        return builder.build();
+    }
+
+    private Set<String> collectNamespacePackages() {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(project);
+        for (String namespace : getNamespaces()) {
+            PsiClass clazz = javaPsiFacade.findClass(namespace, scope);
+            PsiFile file = null == clazz ? null : clazz.getContainingFile();
+            if (file instanceof PsiJavaFile) {
+                builder.add(((PsiJavaFile) file).getPackageName());
+            }
+        }
+        return builder.build();
+    }
+
+    private Set<VirtualFile> collectMapperDirectories() {
+        ImmutableSet.Builder<VirtualFile> builder = ImmutableSet.builder();
+        for (String namespace : getNamespaces()) {
+            for (VirtualFile file : MapperNamespaceIndex.getFiles(namespace, scope)) {
+                VirtualFile parent = file.getParent();
+                if (null != parent) {
+                    builder.add(parent);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * The resultMap, sql or parameterMap elements of all mappers, hashed by their qualified id (namespace.id)
+     */
+    public static final class IdTable<T extends IdDomElement> {
+
+        private final List<T> elements;
+
+        private final ImmutableListMultimap<String, T> bySignature;
+
+        private final ImmutableSetMultimap<String, String> idsByNamespace;
+
+        private final Map<String, List<String>> variantsByNamespace = new ConcurrentHashMap<>();
+
+        IdTable(@NotNull List<Mapper> mappers, @NotNull Function<Mapper, List<T>> getter) {
+            ImmutableList.Builder<T> elementsBuilder = ImmutableList.builder();
+            ImmutableListMultimap.Builder<String, T> signatureBuilder = ImmutableListMultimap.builder();
+            ImmutableSetMultimap.Builder<String, String> idsBuilder = ImmutableSetMultimap.builder();
+            for (Mapper mapper : mappers) {
+                String namespace = MapperUtils.getNamespace(mapper);
+                for (T element : getter.apply(mapper)) {
+                    String id = MapperUtils.getId(element);
+                    if (null != id) {
+                        elementsBuilder.add(element);
+                        signatureBuilder.put(namespace + "." + id, element);
+                        idsBuilder.put(namespace, id);
+                    }
+                }
+            }
+            this.elements = elementsBuilder.build();
+            this.bySignature = signatureBuilder.build();
+            this.idsByNamespace = idsBuilder.build();
+        }
+
+        @NotNull
+        public List<T> getElements() {
+            return elements;
+        }
+
+        /**
+         * @param signature namespace.id of the element
+         */
+        @NotNull
+        public List<T> find(@NotNull String signature) {
+            return bySignature.get(signature);
+        }
+
+        /**
+         * Resolves a reference written inside the mapper of the given namespace, which may use the local id
+         */
+        @NotNull
+        public List<T> find(@NotNull String contextNamespace, @NotNull String value) {
+            List<T> result = bySignature.get(value);
+            return result.isEmpty() ? bySignature.get(contextNamespace + "." + value) : result;
+        }
+
+        /**
+         * Local ids declared in the given namespace
+         */
+        @NotNull
+        public List<String> getIds(@NotNull String namespace) {
+            return idsByNamespace.get(namespace).asList();
+        }
+
+        /**
+         * Completion variants inside the mapper of the given namespace: its own local ids
+         * and the qualified ids of all other mappers, computed once per namespace
+         */
+        @NotNull
+        public List<String> getVariants(@NotNull String contextNamespace) {
+            return variantsByNamespace.computeIfAbsent(contextNamespace, ns -> {
+                ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+                builder.addAll(idsByNamespace.get(ns));
+                for (String signature : bySignature.keySet()) {
+                    if (!isOfNamespace(signature, ns)) {
+                        builder.add(signature);
+                    }
+                }
+                return builder.build().asList();
+            });
+        }
+
+        private boolean isOfNamespace(String signature, String namespace) {
+            return signature.length() > namespace.length()
+                    && signature.charAt(namespace.length()) == '.'
+                    && signature.startsWith(namespace)
+                    && idsByNamespace.containsEntry(namespace, signature.substring(namespace.length() + 1));
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.wuzhizhan.mybatis2.service;
+
+import com.intellij.lang.xml.XMLLanguage;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link MybatisModel} of the project and of each module, a new snapshot is started
+ * whenever a xml file or the project roots change
+ */
+public class MybatisModelService {
+
+    private final Project project;
+
+    private final CachedValue<MybatisModel> model;
+
+    private final CachedValue<Map<Module, MybatisModel>> moduleModels;
+
+    public MybatisModelService(Project project) {
+        this.project = project;
+        CachedValuesManager manager = CachedValuesManager.getManager(project);
+        this.model = manager.createCachedValue(() -> CachedValueProvider.Result.create(
+                new MybatisModel(project, GlobalSearchScope.allScope(project)),
+                PsiModificationTracker.getInstance(project).forLanguage(XMLLanguage.INSTANCE),
+                ProjectRootManager.getInstance(project)), false);
+        this.moduleModels = manager.createCachedValue(() -> CachedValueProvider.Result.create(
+                new ConcurrentHashMap<>(),
+                PsiModificationTracker.getInstance(project).forLanguage(XMLLanguage.INSTANCE),
+                ProjectRootManager.getInstance(project)), false);
+    }
+
+    public static MybatisModelService getInstance(@NotNull Project project) {
+        return project.getService(MybatisModelService.class);
+    }
+
+    /**
+     * The model of every mapper in the project and its libraries
+     */
+    @NotNull
+    public MybatisModel getModel() {
+        return model.getValue();
+    }
+
+    /**
+     * The model seen from the module of the element, or the project model outside of modules
+     */
+    @NotNull
+    public MybatisModel getModel(@Nullable PsiElement context) {
+        return getModel(null == context ? null : ModuleUtilCore.findModuleForPsiElement(context));
+    }
+
+    @NotNull
+    public MybatisModel getModel(@Nullable Module module) {
+        if (null == module) {
+            return getModel();
+        }
+        return moduleModels.getValue().computeIfAbsent(module, key -> new MybatisModel(project, getScope(key)));
+    }
+
+    /**
+     * The module with its dependencies and libraries, test sources and resources included, which is where its xml
+     * and classes resolve to. Sibling modules stay out, so their mappers of the same namespace are not merged.
+     */
+    @NotNull
+    private static GlobalSearchScope getScope(@NotNull Module module) {
+        return module.getModuleWithDependenciesAndLibrariesScope(true);
+    }
+
+}
@@ -68,6 +68,7 @@ public class MybatisGeneratorMainUI extends JFrame {
     private final JTextField xmlMvnField = new JBTextField(15);
 
     private final JCheckBox offsetLimitBox = new JCheckBox("Page(分页)");
+    private final JComboBox<String> paginationBox = new JComboBox<>(new String[]{"substitution", "bound", "keyset"});
     private final JCheckBox commentBox = new JCheckBox("comment(实体注释)");
     private final JCheckBox overrideXMLBox = new JCheckBox("Overwrite-Xml");
     private final JCheckBox overrideJavaBox = new JCheckBox("Overwrite-Java");
@@ -281,7 +282,7 @@ public class MybatisGeneratorMainUI extends JFrame {
         /*
           options
          */
-        JPanel optionsPanel = new JBPanel<>(new GridLayout(8, 2, 5, 5));
+        JPanel optionsPanel = new JBPanel<>(new GridLayout(9, 2, 5, 5));
         optionsPanel.setBorder(IdeBorderFactory.createTitledBorder("Options"));
         if (config == null) {
             commentBox.setSelected(true);
@@ -294,6 +295,7 @@ public class MybatisGeneratorMainUI extends JFrame {
             if (config.isOffsetLimit()) {
                 offsetLimitBox.setSelected(true);
             }
+            paginationBox.setSelectedItem(config.getPagination());
             if (config.isComment()) {
                 commentBox.setSelected(true);
             }
@@ -357,6 +359,10 @@ public class MybatisGeneratorMainUI extends JFrame {
         optionsPanel.add(useExampleBox);
         optionsPanel.add(useLombokBox);
         optionsPanel.add(useSwaggerBox);
+        JPanel paginationPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        paginationPanel.add(new JLabel("Page-Mode(分页方式): "));
+        paginationPanel.add(paginationBox);
+        optionsPanel.add(paginationPanel);
         optionsPanel.setAutoscrolls(true);
 
         JPanel mainPanel = new JPanel(new VerticalFlowLayout());
@@ -417,6 +423,7 @@ public class MybatisGeneratorMainUI extends JFrame {
                         xmlPackageField.setText(selectedConfig.getXmlPackage());
                         projectFolderBtn.setText(selectedConfig.getProjectFolder());
                         offsetLimitBox.setSelected(selectedConfig.isOffsetLimit());
+                        paginationBox.setSelectedItem(selectedConfig.getPagination());
                         commentBox.setSelected(selectedConfig.isComment());
                         overrideXMLBox.setSelected(selectedConfig.isOverrideXML());
                         overrideJavaBox.setSelected(selectedConfig.isOverrideJava());
@@ -506,6 +513,7 @@ public class MybatisGeneratorMainUI extends JFrame {
                 generator_config.setPrimaryKey(keyField.getText());
 
                 generator_config.setOffsetLimit(offsetLimitBox.getSelectedObjects() != null);
+                generator_config.setPagination((String) paginationBox.getSelectedItem());
                 generator_config.setComment(commentBox.getSelectedObjects() != null);
                 generator_config.setOverrideXML(overrideXMLBox.getSelectedObjects() != null);
                 generator_config.setOverrideJava(overrideJavaBox.getSelectedObjects() != null);
@@ -551,6 +559,7 @@ public class MybatisGeneratorMainUI extends JFrame {
                     generator_config.setPrimaryKey(primaryKey);
 
                     generator_config.setOffsetLimit(offsetLimitBox.getSelectedObjects() != null);
+                    generator_config.setPagination((String) paginationBox.getSelectedItem());
                     generator_config.setComment(commentBox.getSelectedObjects() != null);
                     generator_config.setOverrideXML(overrideXMLBox.getSelectedObjects() != null);
                     generator_config.setOverrideJava(overrideJavaBox.getSelectedObjects() != null);
@@ -36,6 +36,7 @@ public class MybatisGeneratorSettingUI extends JDialog {
     private final JButton setProjectBtn = new JButton("Set-Project-Path");
 
     private final JCheckBox offsetLimitBox = new JCheckBox("Page(分页)");
+    private final JComboBox<String> paginationBox = new JComboBox<>(new String[]{"substitution", "bound", "keyset"});
     private final JCheckBox commentBox = new JCheckBox("comment(实体注释)");
     private final JCheckBox overrideXMLBox = new JCheckBox("Overwrite-Xml");
     private final JCheckBox overrideJavaBox = new JCheckBox("Overwrite-Java");
@@ -150,7 +151,7 @@ public class MybatisGeneratorSettingUI extends JDialog {
         /*
          * options panel
          */
-        JBPanel<?> optionsPanel = new JBPanel<>(new GridLayout(8, 2, 5, 5));
+        JBPanel<?> optionsPanel = new JBPanel<>(new GridLayout(9, 2, 5, 5));
         optionsPanel.setBorder(IdeBorderFactory.createTitledBorder("Options"));
 
         commentBox.setSelected(true);
@@ -175,6 +176,10 @@ public class MybatisGeneratorSettingUI extends JDialog {
         optionsPanel.add(useExampleBox);
         optionsPanel.add(useLombokBox);
         optionsPanel.add(useSwaggerBox);
+        JPanel paginationPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        paginationPanel.add(new JLabel("Page-Mode(分页方式): "));
+        paginationPanel.add(paginationBox);
+        optionsPanel.add(paginationPanel);
 
         /*
          * 设置面板内容
@@ -198,6 +203,7 @@ public class MybatisGeneratorSettingUI extends JDialog {
 
             projectFolderBtn.setText(config.getProjectFolder());
             offsetLimitBox.setSelected(config.isOffsetLimit());
+            paginationBox.setSelectedItem(config.getPagination());
             commentBox.setSelected(config.isComment());
             overrideXMLBox.setSelected(config.isOverrideXML());
             overrideJavaBox.setSelected(config.isOverrideJava());
@@ -249,6 +255,7 @@ public class MybatisGeneratorSettingUI extends JDialog {
         config.setProjectFolder(projectFolderBtn.getText());
 
         config.setOffsetLimit(offsetLimitBox.getSelectedObjects() != null);
+        config.setPagination((String) paginationBox.getSelectedItem());
         config.setComment(commentBox.getSelectedObjects() != null);
         config.setOverrideXML(overrideXMLBox.getSelectedObjects() != null);
         config.setOverrideJava(overrideJavaBox.getSelectedObjects() != null);
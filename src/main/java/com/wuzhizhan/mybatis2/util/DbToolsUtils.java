@@ -1,21 +1,40 @@
 package com.wuzhizhan.mybatis2.util;
 
 import com.intellij.database.model.DasColumn;
+import com.intellij.database.model.DasIndex;
+import com.intellij.database.model.DasTable;
 import com.intellij.database.model.DasTableKey;
 import com.intellij.database.model.DasTypedObject;
 import com.intellij.database.model.MultiRef;
+import com.intellij.database.psi.DbDataSource;
+import com.intellij.database.psi.DbPsiFacade;
 import com.intellij.database.psi.DbTable;
 import com.intellij.database.util.DasUtil;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.util.containers.JBIterable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.mybatis.generator.api.intellij.IntellijColumnInfo;
 import org.mybatis.generator.api.intellij.IntellijTableInfo;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DbToolsUtils {
+
+    private static final Key<CachedValue<TableIndexes>> TABLE_INDEXES_KEY = Key.create("mybatis2.db.table.indexes");
+
     public static IntellijTableInfo buildIntellijTableInfo(DbTable currentTable) {
         IntellijTableInfo tableInfo = new IntellijTableInfo();
         tableInfo.setTableName(currentTable.getName());
@@ -186,4 +205,103 @@ public class DbToolsUtils {
         }
     }
 
+    /**
+     * The columns and leading index columns of the first table of that name among the data sources of the project
+     */
+    @Nullable
+    public static TableIndex findTableIndex(@NotNull Project project, @NotNull String tableName) {
+        String name = tableName.toLowerCase(Locale.ROOT);
+        for (DbDataSource dataSource : DbPsiFacade.getInstance(project).getDataSources()) {
+            TableIndex index = getTableIndexes(dataSource).find(name);
+            if (index != null) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The tables of the data source by lower case name, kept until the data source changes
+     */
+    @NotNull
+    private static TableIndexes getTableIndexes(@NotNull DbDataSource dataSource) {
+        return CachedValuesManager.getManager(dataSource.getProject()).getCachedValue(dataSource, TABLE_INDEXES_KEY,
+                () -> CachedValueProvider.Result.create(new TableIndexes(dataSource), dataSource), false);
+    }
+
+    private static TableIndex buildTableIndex(DasTable table) {
+        Set<String> columns = new HashSet<>();
+        for (DasColumn column : DasUtil.getColumns(table)) {
+            columns.add(column.getName().toLowerCase(Locale.ROOT));
+        }
+        Set<String> leadingColumns = new HashSet<>();
+        for (DasIndex index : DasUtil.getIndices(table)) {
+            addLeadingColumn(index.getColumnsRef(), leadingColumns);
+        }
+        for (DasTableKey key : DasUtil.getTableKeys(table)) {
+            addLeadingColumn(key.getColumnsRef(), leadingColumns);
+        }
+        return new TableIndex(table.getName(), columns, leadingColumns);
+    }
+
+    private static void addLeadingColumn(MultiRef<? extends DasTypedObject> columnsRef, Set<String> leadingColumns) {
+        MultiRef.It<? extends DasTypedObject> iterate = columnsRef.iterate();
+        if (iterate.hasNext()) {
+            leadingColumns.add(iterate.next().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * The tables of one data source, listed once, each summarized on its first lookup
+     */
+    private static final class TableIndexes {
+
+        private final Map<String, DasTable> tables = new HashMap<>();
+
+        private final Map<String, TableIndex> indexes = new ConcurrentHashMap<>();
+
+        private TableIndexes(DbDataSource dataSource) {
+            for (DasTable table : DasUtil.getTables(dataSource)) {
+                tables.putIfAbsent(table.getName().toLowerCase(Locale.ROOT), table);
+            }
+        }
+
+        @Nullable
+        private TableIndex find(String name) {
+            DasTable table = tables.get(name);
+            return table == null ? null : indexes.computeIfAbsent(name, key -> buildTableIndex(table));
+        }
+    }
+
+    public static final class TableIndex {
+
+        private final String name;
+
+        private final Set<String> columns;
+
+        private final Set<String> leadingColumns;
+
+        private TableIndex(String name, Set<String> columns, Set<String> leadingColumns) {
+            this.name = name;
+            this.columns = columns;
+            this.leadingColumns = leadingColumns;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean hasColumn(@NotNull String column) {
+            return columns.contains(column.toLowerCase(Locale.ROOT));
+        }
+
+        /**
+         * Whether a predicate on the column can use an index of the table: the primary key, unique keys and
+         * indexes are only usable from their first column
+         */
+        public boolean isLeadingColumn(@NotNull String column) {
+            return leadingColumns.contains(column.toLowerCase(Locale.ROOT));
+        }
+    }
+
 }
@@ -3,17 +3,20 @@ package com.wuzhizhan.mybatis2.util;
 import com.google.common.base.Function;
 import com.google.common.collect.Collections2;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.xml.XmlFile;
-import com.intellij.psi.xml.XmlTag;
 import com.intellij.util.xml.DomElement;
 import com.intellij.util.xml.DomFileElement;
+import com.intellij.util.xml.DomManager;
 import com.intellij.util.xml.DomService;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -26,7 +29,14 @@ public final class DomUtils {
     @NotNull
     @NonNls
     public static <T extends DomElement> Collection<T> findDomElements(@NotNull Project project, Class<T> clazz) {
-        GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        return findDomElements(project, clazz, GlobalSearchScope.allScope(project));
+    }
+
+    @NotNull
+    @NonNls
+    public static <T extends DomElement> Collection<T> findDomElements(@NotNull Project project,
+                                                                       Class<T> clazz,
+                                                                       @NotNull GlobalSearchScope scope) {
         List<DomFileElement<T>> elements = DomService.getInstance().getFileElements(clazz, project, scope);
         return Collections2.transform(elements, new Function<DomFileElement<T>, T>() {
             @Override
@@ -36,31 +46,43 @@ public final class DomUtils {
         });
     }
 
-    public static boolean isMybatisFile(@Nullable PsiFile file) {
-        if (!isXmlFile(file)) {
-            return false;
+    /**
+     * Only builds the dom of the given files, instead of every file of the root element type in the project
+     */
+    @NotNull
+    @NonNls
+    public static <T extends DomElement> List<T> findDomElements(@NotNull Project project,
+                                                                 Class<T> clazz,
+                                                                 @NotNull Collection<VirtualFile> files) {
+        List<T> result = new ArrayList<>(files.size());
+        PsiManager psiManager = PsiManager.getInstance(project);
+        DomManager domManager = DomManager.getDomManager(project);
+        for (VirtualFile file : files) {
+            PsiFile psiFile = file.isValid() ? psiManager.findFile(file) : null;
+            if (!isXmlFile(psiFile)) {
+                continue;
+            }
+            DomFileElement<T> fileElement = domManager.getFileElement((XmlFile) psiFile, clazz);
+            if (null != fileElement) {
+                result.add(fileElement.getRootElement());
+            }
         }
-        XmlTag rootTag = ((XmlFile) file).getRootTag();
-        return null != rootTag && rootTag.getName().equals("mapper");
+        return result;
+    }
+
+    public static boolean isMybatisFile(@Nullable PsiFile file) {
+        return MybatisFileKind.of(file) == MybatisFileKind.MAPPER;
     }
 
     public static boolean isMybatisConfigurationFile(@NotNull PsiFile file) {
-        if (!isXmlFile(file)) {
-            return false;
-        }
-        XmlTag rootTag = ((XmlFile) file).getRootTag();
-        return null != rootTag && rootTag.getName().equals("configuration");
+        return MybatisFileKind.of(file) == MybatisFileKind.CONFIGURATION;
     }
 
     public static boolean isBeansFile(@NotNull PsiFile file) {
-        if (!isXmlFile(file)) {
-            return false;
-        }
-        XmlTag rootTag = ((XmlFile) file).getRootTag();
-        return null != rootTag && rootTag.getName().equals("beans");
+        return MybatisFileKind.of(file) == MybatisFileKind.BEANS;
     }
 
-    static boolean isXmlFile(@NotNull PsiFile file) {
+    static boolean isXmlFile(@Nullable PsiFile file) {
         return file instanceof XmlFile;
     }
 
@@ -1,18 +1,17 @@
 package com.wuzhizhan.mybatis2.util;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Collections2;
-import com.google.common.collect.Lists;
 import com.intellij.ide.fileTemplates.FileTemplate;
 import com.intellij.ide.fileTemplates.FileTemplateManager;
 import com.intellij.ide.fileTemplates.FileTemplateUtil;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.xml.XmlElement;
 import com.intellij.util.Processor;
 import com.intellij.util.xml.DomElement;
 import com.intellij.util.xml.DomUtil;
 import com.wuzhizhan.mybatis2.dom.model.*;
+import com.wuzhizhan.mybatis2.service.MybatisModelService;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -53,12 +52,15 @@ public final class MapperUtils {
 
     @NotNull
     public static Collection<PsiDirectory> findMapperDirectories(@NotNull Project project) {
-        return Collections2.transform(findMappers(project), new Function<Mapper, PsiDirectory>() {
-            @Override
-            public PsiDirectory apply(Mapper input) {
-                return input.getXmlElement().getContainingFile().getContainingDirectory();
+        PsiManager psiManager = PsiManager.getInstance(project);
+        List<PsiDirectory> result = new ArrayList<>();
+        for (VirtualFile directory : MybatisModelService.getInstance(project).getModel().getMapperDirectories()) {
+            PsiDirectory psiDirectory = directory.isValid() ? psiManager.findDirectory(directory) : null;
+            if (null != psiDirectory) {
+                result.add(psiDirectory);
             }
-        });
+        }
+        return result;
     }
 
     public static boolean isElementWithinMybatisFile(@NotNull PsiElement element) {
@@ -69,24 +71,32 @@ public final class MapperUtils {
     @NotNull
     @NonNls
     public static Collection<Mapper> findMappers(@NotNull Project project) {
-        return DomUtils.findDomElements(project, Mapper.class);
+        return MybatisModelService.getInstance(project).getModel().getMappers();
     }
 
     @NotNull
     @NonNls
     public static Collection<Mapper> findMappers(@NotNull Project project, @NotNull String namespace) {
-        List<Mapper> result = Lists.newArrayList();
-        for (Mapper mapper : findMappers(project)) {
-            if (getNamespace(mapper).equals(namespace)) {
-                result.add(mapper);
-            }
-        }
-        return result;
+        return MybatisModelService.getInstance(project).getModel().getMappers(namespace);
+    }
+
+    /**
+     * Whether some mapper xml declares the class as its namespace, answered from the cached namespace set
+     */
+    public static boolean isMapperNamespace(@NotNull Project project, @Nullable PsiClass clazz) {
+        String qualifiedName = null == clazz ? null : clazz.getQualifiedName();
+        return null != qualifiedName && MybatisModelService.getInstance(project).getModel(clazz).isMapperNamespace(qualifiedName);
     }
 
+    /**
+     * Mappers of the class as seen from its module, see {@link MybatisModelService#getModel(PsiElement)}
+     */
     @NotNull
     public static Collection<Mapper> findMappers(@NotNull Project project, @NotNull PsiClass clazz) {
-        return JavaUtils.isElementWithinInterface(clazz) ? findMappers(project, clazz.getQualifiedName()) : Collections.<Mapper>emptyList();
+        String qualifiedName = clazz.getQualifiedName();
+        return JavaUtils.isElementWithinInterface(clazz) && null != qualifiedName
+                ? MybatisModelService.getInstance(project).getModel(clazz).getMappers(qualifiedName)
+                : Collections.<Mapper>emptyList();
     }
 
     @NotNull
@@ -106,7 +116,11 @@ public final class MapperUtils {
     @NonNls
     public static Optional<Mapper> findFirstMapper(@NotNull Project project, @NotNull PsiClass clazz) {
         String qualifiedName = clazz.getQualifiedName();
-        return null != qualifiedName ? findFirstMapper(project, qualifiedName) : Optional.empty();
+        if (null == qualifiedName) {
+            return Optional.empty();
+        }
+        List<Mapper> mappers = MybatisModelService.getInstance(project).getModel(clazz).getMappers(qualifiedName);
+        return mappers.isEmpty() ? Optional.empty() : Optional.of(mappers.get(0));
     }
 
     @NotNull
@@ -172,31 +186,18 @@ public final class MapperUtils {
     }
 
     public static void processConfiguredTypeAliases(@NotNull Project project, @NotNull Processor<TypeAlias> processor) {
-        for (Configuration conf : getMybatisConfigurations(project)) {
-            for (TypeAliases tas : conf.getTypeAliases()) {
-                for (TypeAlias ta : tas.getTypeAlias()) {
-                    String stringValue = ta.getAlias().getStringValue();
-                    if (null != stringValue && !processor.process(ta)) {
-                        return;
-                    }
-                }
+        for (TypeAlias ta : MybatisModelService.getInstance(project).getModel().getTypeAliases()) {
+            if (!processor.process(ta)) {
+                return;
             }
         }
     }
 
-    private static Collection<Configuration> getMybatisConfigurations(Project project) {
-        return DomUtils.findDomElements(project, Configuration.class);
-    }
-
     public static void processConfiguredPackage(@NotNull Project project,
                                                 @NotNull Processor<com.wuzhizhan.mybatis2.dom.model.Package> processor) {
-        for (Configuration conf : getMybatisConfigurations(project)) {
-            for (TypeAliases tas : conf.getTypeAliases()) {
-                for (com.wuzhizhan.mybatis2.dom.model.Package pkg : tas.getPackages()) {
-                    if (!processor.process(pkg)) {
-                        return;
-                    }
-                }
+        for (com.wuzhizhan.mybatis2.dom.model.Package pkg : MybatisModelService.getInstance(project).getModel().getAliasPackages()) {
+            if (!processor.process(pkg)) {
+                return;
             }
         }
     }
@@ -0,0 +1,68 @@
+package com.wuzhizhan.mybatis2.util;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.util.xml.DomService;
+import com.intellij.util.xml.XmlFileHeader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Kind of a xml file, told apart by the root tag name of its header.
+ * <p>
+ * The header is read from stubs or by a light text scan instead of the psi tree, and the result is kept
+ * on the virtual file until the file changes, so every extension point can ask on each call.
+ */
+public enum MybatisFileKind {
+
+    MAPPER("mapper"),
+
+    CONFIGURATION("configuration"),
+
+    BEANS("beans"),
+
+    OTHER(null);
+
+    private static final Key<Pair<Long, MybatisFileKind>> KIND_KEY = Key.create("mybatis2.file.kind");
+
+    private final String rootTagName;
+
+    MybatisFileKind(String rootTagName) {
+        this.rootTagName = rootTagName;
+    }
+
+    @NotNull
+    public static MybatisFileKind of(@Nullable PsiFile file) {
+        if (!(file instanceof XmlFile)) {
+            return OTHER;
+        }
+        VirtualFile virtualFile = file.getVirtualFile();
+        if (null == virtualFile) {
+            return classify((XmlFile) file);
+        }
+        long stamp = file.getModificationStamp();
+        Pair<Long, MybatisFileKind> cached = virtualFile.getUserData(KIND_KEY);
+        if (null != cached && cached.first == stamp) {
+            return cached.second;
+        }
+        MybatisFileKind kind = classify((XmlFile) file);
+        virtualFile.putUserData(KIND_KEY, Pair.create(stamp, kind));
+        return kind;
+    }
+
+    @NotNull
+    private static MybatisFileKind classify(@NotNull XmlFile file) {
+        XmlFileHeader header = DomService.getInstance().getXmlFileHeader(file);
+        String rootTagName = header.getRootTagLocalName();
+        for (MybatisFileKind kind : values()) {
+            if (null != kind.rootTagName && kind.rootTagName.equals(rootTagName)) {
+                return kind;
+            }
+        }
+        return OTHER;
+    }
+
+}